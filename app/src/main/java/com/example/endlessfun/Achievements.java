@@ -0,0 +1,187 @@
+package com.example.endlessfun;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Achievements evaluated from the GameEventQueue. Rules are indexed by event type, so an event
+ * only reaches the rules that listen to it, and a rule that is already unlocked is skipped.
+ * Dispatch runs on the game thread without allocating; what unlocked during a run is handed
+ * out by takeNewlyUnlocked() at the end of the run and saved in bulk (GamePrefs).
+ */
+public final class Achievements {
+
+    /** One achievement. Rules keep per-run state; onEvent returns true when the rule is met. */
+    abstract static class Rule {
+        final String id;       // persisted, never rename
+        final int titleRes;
+        final int[] eventTypes;
+        int index;
+
+        Rule(String id, int titleRes, int... eventTypes) {
+            this.id = id;
+            this.titleRes = titleRes;
+            this.eventTypes = eventTypes;
+        }
+
+        void startRun() {}
+
+        abstract boolean onEvent(int type, int value);
+    }
+
+    /** An event of one type with a value of at least target (e.g. SCORE >= 50). */
+    static final class Reach extends Rule {
+        private final int target;
+
+        Reach(String id, int titleRes, int type, int target) {
+            super(id, titleRes, type);
+            this.target = target;
+        }
+
+        @Override
+        boolean onEvent(int type, int value) {
+            return value >= target;
+        }
+    }
+
+    /**
+     * target events of countType in a run whose value has all valueMask bits set, with no other
+     * listened event in between: a countType event without the bits or any resetTypes event
+     * starts the count over.
+     */
+    static final class Streak extends Rule {
+        private final int countType;
+        private final int valueMask;
+        private final int target;
+        private int count;
+
+        Streak(String id, int titleRes, int countType, int valueMask, int target, int... resetTypes) {
+            super(id, titleRes, concat(countType, resetTypes));
+            this.countType = countType;
+            this.valueMask = valueMask;
+            this.target = target;
+        }
+
+        @Override
+        void startRun() {
+            count = 0;
+        }
+
+        @Override
+        boolean onEvent(int type, int value) {
+            if (type == countType && (value & valueMask) == valueMask) return ++count >= target;
+            count = 0;
+            return false;
+        }
+    }
+
+    /** A run that ends with at least minScore and no pipe hit. */
+    static final class CleanRun extends Rule {
+        private final int minScore;
+        private boolean hit;
+
+        CleanRun(String id, int titleRes, int minScore) {
+            super(id, titleRes, GameEventQueue.HIT, GameEventQueue.RUN_END);
+            this.minScore = minScore;
+        }
+
+        @Override
+        void startRun() {
+            hit = false;
+        }
+
+        @Override
+        boolean onEvent(int type, int value) {
+            if (type == GameEventQueue.HIT) {
+                hit = true;
+                return false;
+            }
+            return !hit && value >= minScore;
+        }
+    }
+
+    static Achievements createDefault() {
+        return new Achievements(
+                new Reach("first_run", R.string.ach_first_run, GameEventQueue.RUN_END, 0),
+                new Streak("moving_streak", R.string.ach_moving_streak, GameEventQueue.PIPE_PASSED,
+                        GameEventQueue.PASSED_MOVING, 10, GameEventQueue.HIT),
+                new CleanRun("clean_run", R.string.ach_clean_run, 10),
+                new Reach("half_century", R.string.ach_half_century, GameEventQueue.SCORE, 50),
+                new Streak("busy_wings", R.string.ach_busy_wings, GameEventQueue.FLAP, 0, 300));
+    }
+
+    final Rule[] rules;
+    private final Rule[][] rulesByType;
+    private final boolean[] unlocked;
+    private final int[] newlyUnlocked;
+    private int newlyUnlockedCount;
+
+    Achievements(Rule... rules) {
+        this.rules = rules;
+        unlocked = new boolean[rules.length];
+        newlyUnlocked = new int[rules.length];
+        int[] perType = new int[GameEventQueue.TYPE_COUNT];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].index = i;
+            for (int type : rules[i].eventTypes) perType[type]++;
+        }
+        rulesByType = new Rule[GameEventQueue.TYPE_COUNT][];
+        for (int type = 0; type < rulesByType.length; type++) rulesByType[type] = new Rule[perType[type]];
+        int[] filled = new int[GameEventQueue.TYPE_COUNT];
+        for (Rule r : rules) {
+            for (int type : r.eventTypes) rulesByType[type][filled[type]++] = r;
+        }
+    }
+
+    /** Marks the saved achievements as unlocked (they are skipped from now on). */
+    void setUnlocked(Collection<String> ids) {
+        for (Rule r : rules) {
+            if (ids.contains(r.id)) unlocked[r.index] = true;
+        }
+    }
+
+    boolean isUnlocked(Rule rule) {
+        return unlocked[rule.index];
+    }
+
+    void drain(GameEventQueue queue) {
+        drain(queue, Integer.MAX_VALUE);
+    }
+
+    /** Dispatches the queued events stamped up to throughTick; later ones stay queued. */
+    void drain(GameEventQueue queue, int throughTick) {
+        while (!queue.isEmpty() && queue.peekTick() <= throughTick) {
+            dispatch(queue.peekType(), queue.peekValue());
+            queue.poll();
+        }
+    }
+
+    void dispatch(int type, int value) {
+        if (type == GameEventQueue.RUN_START) {
+            for (Rule r : rules) r.startRun();
+            return;
+        }
+        for (Rule r : rulesByType[type]) {
+            if (!unlocked[r.index] && r.onEvent(type, value)) {
+                unlocked[r.index] = true;
+                newlyUnlocked[newlyUnlockedCount++] = r.index;
+            }
+        }
+    }
+
+    /** Rules unlocked since the last call, in unlock order. */
+    List<Rule> takeNewlyUnlocked() {
+        List<Rule> out = new ArrayList<>(newlyUnlockedCount);
+        for (int i = 0; i < newlyUnlockedCount; i++) out.add(rules[newlyUnlocked[i]]);
+        newlyUnlockedCount = 0;
+        return out;
+    }
+
+    private static int[] concat(int first, int[] rest) {
+        int[] out = new int[rest.length + 1];
+        out[0] = first;
+        System.arraycopy(rest, 0, out, 1, rest.length);
+        return out;
+    }
+}
@@ -5,14 +5,37 @@ import android.content.Context;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
-@Database(entities = {HighScore.class}, version = 1, exportSchema = false)
+@Database(entities = {HighScore.class, StatsRollup.class}, version = 3, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
 
     private static volatile AppDatabase INSTANCE;
 
+    /** v2: best-run ghost stored next to the high score. */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE HighScore ADD COLUMN ghost BLOB");
+        }
+    };
+
+    /** v3: per-day and lifetime stats rollups. */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `StatsRollup` (`day` INTEGER NOT NULL, "
+                    + "`runs` INTEGER NOT NULL, `pipes` INTEGER NOT NULL, `jumps` INTEGER NOT NULL, "
+                    + "`bronze` INTEGER NOT NULL, `silver` INTEGER NOT NULL, `gold` INTEGER NOT NULL, "
+                    + "`platinum` INTEGER NOT NULL, `histogram` BLOB, PRIMARY KEY(`day`))");
+        }
+    };
+
     public abstract ScoreDao scoreDao();
 
+    public abstract StatsDao statsDao();
+
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
@@ -21,7 +44,7 @@ public abstract class AppDatabase extends RoomDatabase {
                             context.getApplicationContext(),
                             AppDatabase.class,
                             "game_db"
-                    ).build();
+                    ).addMigrations(MIGRATION_1_2, MIGRATION_2_3).build();
                 }
             }
         }
@@ -0,0 +1,178 @@
+package com.example.endlessfun;
+
+import java.util.Arrays;
+
+/**
+ * Lookahead bot for assist mode and load testing. Each tick it looks for a tap / no-tap
+ * sequence over the next HORIZON_TICKS that neither hits a pipe nor ends the run, by
+ * simulating cloned GameStates (copyFrom: flat arrays, no allocation).
+ *
+ * Work is reused: the plan found last tick is shifted by one and re-checked first, and a new
+ * depth-first search only runs when it no longer survives. The search branches every
+ * DECISION_TICKS ticks, stops at the first surviving plan, prunes a branch as soon as it
+ * dies, and gives up after NODE_BUDGET simulated ticks (then it follows the branch that
+ * survived longest); the pipe preview for an empty screen counts toward the same budget.
+ * Branches try "tap when below the next gap" first. The clones share the run's RNG state,
+ * so the lookahead sees the pipes that will really spawn.
+ */
+public final class Autopilot {
+
+    static final int DECISION_TICKS = 5;
+    static final int LEVELS = 16;
+    static final int HORIZON_TICKS = DECISION_TICKS * LEVELS;
+    /** Simulated ticks allowed per decision: ~1 ms on a desktop JVM (AutopilotBenchmark), a few on a phone. */
+    static final int NODE_BUDGET = 20_000;
+
+    // stack[0] is the root copy, stack[k] the state after k decision levels
+    private final GameState[] stack = new GameState[LEVELS + 1];
+    private final GameState check = new GameState();
+    private final GameState field = new GameState();
+    // Where to aim when no pipe is ahead yet: the gap of the next pipe to spawn
+    private float upcomingTarget;
+
+    // Per-tick plan: plan[i] = tap at i ticks from now
+    private final boolean[] plan = new boolean[HORIZON_TICKS];
+    private final boolean[] levelChoice = new boolean[LEVELS];
+    private final boolean[] deepestChoice = new boolean[LEVELS];
+    private int deepest;
+    private boolean hasPlan;
+
+    private int nodesThisDecision;
+    long nodes;        // simulated ticks since creation (for the nodes/s benchmark)
+    long searches;     // decisions that needed a fresh search
+    long reuses;       // decisions served by the shifted previous plan
+
+    public Autopilot() {
+        for (int i = 0; i < stack.length; i++) stack[i] = new GameState();
+    }
+
+    /** Forget the current plan (new run, restore, or the player took over). */
+    public void reset() {
+        hasPlan = false;
+    }
+
+    /** Whether to tap on this tick of state (which is not modified). */
+    public boolean decide(GameState state) {
+        if (state.gameOver || state.countdownActive) {
+            hasPlan = false;
+            return false;
+        }
+        nodesThisDecision = 0;
+
+        if (hasPlan) {
+            System.arraycopy(plan, 1, plan, 0, HORIZON_TICKS - 1);
+            plan[HORIZON_TICKS - 1] = false;
+            if (survives(state)) {
+                reuses++;
+                return plan[0];
+            }
+        }
+
+        searches++;
+        upcomingTarget = predictNextGap(state);
+        GameState root = stack[0];
+        root.copyFrom(state);
+        root.invincibleFramesLeft = 0;  // plan as if every pipe counts
+        deepest = 0;
+        hasPlan = search(0);
+        if (hasPlan) {
+            fillPlan(levelChoice, LEVELS);
+            return plan[0];
+        }
+        // No way through the horizon: follow the branch that lasted longest, and search again next tick
+        if (deepest > 0) {
+            fillPlan(deepestChoice, deepest);
+            return plan[0];
+        }
+        return fallback(state);
+    }
+
+    private void fillPlan(boolean[] choices, int levels) {
+        Arrays.fill(plan, false);
+        for (int level = 0; level < levels; level++) plan[level * DECISION_TICKS] = choices[level];
+    }
+
+    /** Replays plan from state; true if it gets through the horizon without a hit. */
+    private boolean survives(GameState state) {
+        GameState s = check;
+        s.copyFrom(state);
+        s.invincibleFramesLeft = 0;
+        for (int t = 0; t < HORIZON_TICKS; t++) {
+            if (died(s.tick(plan[t]))) return false;
+        }
+        return true;
+    }
+
+    /** Depth-first over tap / no-tap at each level; fills levelChoice on success. */
+    private boolean search(int level) {
+        if (level == LEVELS) return true;
+        if (nodesThisDecision >= NODE_BUDGET) return false;
+        GameState from = stack[level];
+        GameState next = stack[level + 1];
+        // Try the move that heads toward the next gap first
+        boolean first = from.playerY > targetY(from);
+        for (int option = 0; option < 2; option++) {
+            boolean tap = option == 0 ? first : !first;
+            next.copyFrom(from);
+            if (!advance(next, tap)) continue;
+            levelChoice[level] = tap;
+            if (level + 1 > deepest) {
+                deepest = level + 1;
+                System.arraycopy(levelChoice, 0, deepestChoice, 0, deepest);
+            }
+            if (search(level + 1)) return true;
+            if (nodesThisDecision >= NODE_BUDGET) return false;
+        }
+        return false;
+    }
+
+    /** DECISION_TICKS ticks, tapping on the first if tap. False if the bird is hit. */
+    private boolean advance(GameState s, boolean tap) {
+        for (int t = 0; t < DECISION_TICKS; t++) {
+            nodesThisDecision++;
+            nodes++;
+            if (died(s.tick(tap && t == 0))) return false;
+        }
+        return true;
+    }
+
+    private static boolean died(int events) {
+        return (events & (GameState.EVENT_HIT | GameState.EVENT_GAME_OVER)) != 0;
+    }
+
+    private boolean fallback(GameState s) {
+        return s.playerY > targetY(s);
+    }
+
+    /** A bit below the next gap's center (or the upcoming one when no pipe is ahead). */
+    private float targetY(GameState s) {
+        int i = nextPipe(s);
+        return i >= 0 ? s.gapCenterY[i] + s.gapH[i] / 6f : upcomingTarget;
+    }
+
+    private static int nextPipe(GameState s) {
+        float birdLeft = s.playerX - s.playerW / 2f;
+        for (int i = 0; i < s.obstacleCount; i++) {
+            if (s.obstX[i] + s.obstWidth[i] >= birdLeft) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Runs the pipe field alone (same RNG) until a pipe is ahead of the bird, so the bot starts
+     * climbing or dropping toward a gap before it is even on screen. These ticks count against
+     * NODE_BUDGET like the search's.
+     */
+    private float predictNextGap(GameState state) {
+        GameState f = field;
+        f.copyFrom(state);
+        for (int t = 0; t <= 4 * f.spawnDelay && nodesThisDecision < NODE_BUDGET; t++) {
+            int i = nextPipe(f);
+            if (i >= 0) return f.gapCenterY[i] + f.gapH[i] / 6f;
+            f.tickField();
+            nodesThisDecision++;
+            nodes++;
+        }
+        return f.height / 2f;
+    }
+}
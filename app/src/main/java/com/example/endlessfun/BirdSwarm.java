@@ -0,0 +1,351 @@
+package com.example.endlessfun;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AI training mode: hundreds or thousands of birds fly through one shared pipe field
+ * (a GameState advanced with tickField()), each driven by a tiny neural net, and the
+ * population is evolved every generation.
+ *
+ * Per-bird state is kept in flat arrays; physics and collision are one allocation-free pass
+ * over the birds against the (at most two) pipes overlapping the birds' column. The policy
+ * step can be split across fixed worker threads, handed off with park/unpark so a tick
+ * allocates nothing. Same gravity, jump force and ceiling as a normal
+ * run, but one life per bird and the padded collision box instead of the sprite mask.
+ */
+public final class BirdSwarm {
+
+    // Policy: 5 inputs -> HIDDEN softsign units -> 1 output (flap if > 0), biases included
+    static final int INPUTS = 5;
+    static final int HIDDEN = 6;
+    static final int GENOME_SIZE = (INPUTS + 1) * HIDDEN + HIDDEN + 1;
+
+    // Evolution
+    private static final float ELITE_FRACTION = 0.05f;
+    private static final float MUTATION_RATE = 0.1f;
+    private static final float MUTATION_SCALE = 0.5f;
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final int FITNESS_PER_TICK = 4;
+    private static final int FITNESS_PER_PIPE = 200;
+    private static final int FITNESS_MISS_PENALTY = 100;  // at death, scaled by distance to the next gap center / height
+    static final int MAX_GENERATION_TICKS = 50 * 60 * 3;  // 3 simulated minutes
+
+    final int size;
+    final GameState field = new GameState();
+
+    // Birds (all share field.playerX)
+    final float[] y;
+    final float[] velocityY;
+    final boolean[] alive;
+    final int[] ticksAlive;
+    final int[] pipesPassed;
+    final int[] fitness;  // set at death (or at the generation tick cap)
+    private final boolean[] flap;
+
+    // Genomes, GENOME_SIZE floats per bird; index order = rank in the previous generation
+    private float[] genomes;
+    private float[] nextGenomes;
+    private final long[] rankKeys;
+
+    int aliveCount;
+    int generation;
+    int generationTicks;
+    int generationPipes;  // pipes passed by the leaders this generation
+    int bestPipes;        // best over all generations
+    long birdTicks;       // bird steps simulated since creation (throughput metric)
+
+    private long rngState;
+
+    // Next pipe as seen by the policy, set once per tick
+    private float nextPipeDx, nextGapTop, nextGapBottom;
+
+    // Optional parallel policy step: the caller decides slice 0, worker w slice w + 1. A tick
+    // bumps round (publishing the bird arrays) and unparks the workers; the last one to finish
+    // unparks the caller.
+    private final Thread[] workers;
+    private final int chunk;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int round;
+    private volatile boolean stopped;
+    private volatile Thread caller;
+
+    /** threads <= 1 runs the policy step on the calling thread. */
+    public BirdSwarm(int size, int threads, long seed) {
+        this.size = size;
+        y = new float[size];
+        velocityY = new float[size];
+        alive = new boolean[size];
+        ticksAlive = new int[size];
+        pipesPassed = new int[size];
+        fitness = new int[size];
+        flap = new boolean[size];
+        genomes = new float[size * GENOME_SIZE];
+        nextGenomes = new float[size * GENOME_SIZE];
+        rankKeys = new long[size];
+        rngState = seed;
+        for (int i = 0; i < genomes.length; i++) genomes[i] = nextGaussianish();
+
+        threads = Math.max(1, threads);
+        chunk = (size + threads - 1) / threads;
+        workers = new Thread[threads - 1];
+        for (int w = 0; w < workers.length; w++) {
+            final int from = Math.min(size, (w + 1) * chunk);
+            final int to = Math.min(size, from + chunk);
+            workers[w] = new Thread(() -> policyWorker(from, to), "swarm-policy-" + (w + 1));
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+    }
+
+    public void setScreen(int width, int height, float playerW, float playerH) {
+        field.setScreen(width, height, playerW, playerH);
+        startGeneration();
+    }
+
+    /** Stops worker threads. */
+    public void shutdown() {
+        stopped = true;
+        for (Thread w : workers) LockSupport.unpark(w);
+        Thread c = caller;
+        if (c != null) LockSupport.unpark(c);
+    }
+
+    /** One simulation tick for every bird; starts the next generation when all are dead. */
+    public void tick() {
+        if (aliveCount == 0 || generationTicks >= MAX_GENERATION_TICKS) {
+            for (int b = 0; b < size; b++) {
+                if (alive[b]) fitness[b] = fitnessAt(b, y[b]);
+            }
+            evolve();
+            startGeneration();
+        }
+        field.score = generationPipes;  // difficulty follows the leaders
+        field.tickField();
+        findNextPipe();
+        runPolicy();
+        stepBirds();
+        generationTicks++;
+    }
+
+    /** Writes up to out.length alive birds, best-ranked lineage first. Returns the count. */
+    public int topAlive(int[] out) {
+        int n = 0;
+        for (int b = 0; b < size && n < out.length; b++) {
+            if (alive[b]) out[n++] = b;
+        }
+        return n;
+    }
+
+    private void startGeneration() {
+        field.reset(nextLong(), 90, 0);
+        field.countdownActive = false;
+        float startY = field.height / 2f;
+        Arrays.fill(y, startY);
+        Arrays.fill(velocityY, 0);
+        Arrays.fill(alive, true);
+        Arrays.fill(ticksAlive, 0);
+        Arrays.fill(pipesPassed, 0);
+        Arrays.fill(fitness, 0);
+        aliveCount = size;
+        generationTicks = 0;
+        generationPipes = 0;
+    }
+
+    private void findNextPipe() {
+        GameState f = field;
+        float birdLeft = f.playerX - f.playerW / 2f;
+        nextPipeDx = f.width;
+        nextGapTop = 0;
+        nextGapBottom = f.height;
+        for (int i = 0; i < f.obstacleCount; i++) {
+            if (f.obstX[i] + f.obstWidth[i] >= birdLeft) {
+                nextPipeDx = f.obstX[i] - f.playerX;
+                nextGapTop = f.gapTop(i);
+                nextGapBottom = f.gapBottom(i);
+                return;
+            }
+        }
+    }
+
+    private void runPolicy() {
+        if (workers.length == 0 || stopped) {
+            decide(0, size);
+            return;
+        }
+        caller = Thread.currentThread();
+        pending.set(workers.length);
+        round++;
+        for (Thread w : workers) LockSupport.unpark(w);
+        decide(0, Math.min(size, chunk));
+        while (pending.get() != 0 && !stopped) LockSupport.park(this);
+    }
+
+    private void policyWorker(int from, int to) {
+        int seen = 0;
+        while (!stopped) {
+            if (round == seen) {
+                LockSupport.park(this);
+                continue;
+            }
+            seen = round;
+            decide(from, to);
+            if (pending.decrementAndGet() == 0) LockSupport.unpark(caller);
+        }
+    }
+
+    /** Evaluates the nets of birds [from, to) into flap[]. */
+    private void decide(int from, int to) {
+        final float[] w = genomes;
+        final float invH = 1f / field.height;
+        final float in2 = nextPipeDx / field.width;
+        for (int b = from; b < to; b++) {
+            if (!alive[b]) continue;
+            float by = y[b];
+            float in0 = by * invH - 0.5f;
+            float in1 = velocityY[b] * 0.05f;
+            float in3 = (nextGapTop - by) * invH;
+            float in4 = (nextGapBottom - by) * invH;
+            int g = b * GENOME_SIZE;
+            int outBase = g + (INPUTS + 1) * HIDDEN;
+            float out = w[outBase + HIDDEN];
+            for (int h = 0; h < HIDDEN; h++) {
+                int k = g + h * (INPUTS + 1);
+                float sum = w[k] * in0 + w[k + 1] * in1 + w[k + 2] * in2
+                        + w[k + 3] * in3 + w[k + 4] * in4 + w[k + 5];
+                out += w[outBase + h] * (sum / (1f + Math.abs(sum)));  // softsign
+            }
+            flap[b] = out > 0;
+        }
+    }
+
+    /** Physics, ceiling/floor and collision for every alive bird, then pipe scoring. */
+    private void stepBirds() {
+        GameState f = field;
+        float halfH = f.playerH / 2f;
+        float floor = f.height - halfH;
+        float boxLeft = f.playerX - f.playerW / 2f + GameState.COLLISION_PADDING;
+        float boxRight = f.playerX + f.playerW / 2f - GameState.COLLISION_PADDING;
+        float boxHalfH = halfH - GameState.COLLISION_PADDING;
+
+        // Pipes overlapping the birds' column this tick (same for every bird)
+        float gapTop0 = 0, gapBottom0 = 0, gapTop1 = 0, gapBottom1 = 0;
+        int overlapping = 0;
+        for (int i = 0; i < f.obstacleCount && overlapping < 2; i++) {
+            float x = f.obstX[i];
+            if (boxLeft < x + f.obstWidth[i] && x < boxRight) {
+                if (overlapping == 0) {
+                    gapTop0 = f.gapTop(i);
+                    gapBottom0 = f.gapBottom(i);
+                } else {
+                    gapTop1 = f.gapTop(i);
+                    gapBottom1 = f.gapBottom(i);
+                }
+                overlapping++;
+            }
+        }
+
+        int stepped = 0;
+        for (int b = 0; b < size; b++) {
+            if (!alive[b]) continue;
+            float vy = flap[b] ? GameState.JUMP_FORCE : velocityY[b];
+            vy += GameState.GRAVITY;
+            float by = y[b] + vy;
+            if (by < halfH) {
+                by = halfH;
+                vy = Math.max(0, vy);
+            }
+            y[b] = by;
+            velocityY[b] = vy;
+            stepped++;
+
+            float top = by - boxHalfH;
+            float bottom = by + boxHalfH;
+            boolean dead = by > floor
+                    || (overlapping > 0 && (top < gapTop0 || gapBottom0 < bottom))
+                    || (overlapping > 1 && (top < gapTop1 || gapBottom1 < bottom));
+            if (dead) {
+                alive[b] = false;
+                aliveCount--;
+                fitness[b] = fitnessAt(b, by);
+            } else {
+                ticksAlive[b]++;
+            }
+        }
+        birdTicks += stepped;
+
+        // Every surviving bird passes a pipe at the same moment
+        for (int i = 0; i < f.obstacleCount; i++) {
+            if (!f.passed[i] && f.obstX[i] + f.obstWidth[i] < f.playerX) {
+                f.passed[i] = true;
+                generationPipes++;
+                if (generationPipes > bestPipes) bestPipes = generationPipes;
+                for (int b = 0; b < size; b++) {
+                    if (alive[b]) pipesPassed[b]++;
+                }
+            }
+        }
+    }
+
+    /** Survival and pipes, minus how far the bird was from the gap it was heading for. */
+    private int fitnessAt(int b, float birdY) {
+        float miss = Math.abs(birdY - (nextGapTop + nextGapBottom) / 2f) / field.height;
+        return ticksAlive[b] * FITNESS_PER_TICK + pipesPassed[b] * FITNESS_PER_PIPE
+                - (int) (miss * FITNESS_MISS_PENALTY);
+    }
+
+    /** Ranks by fitness, keeps the elite, fills the rest with tournament crossover + mutation. */
+    private void evolve() {
+        for (int b = 0; b < size; b++) {
+            // Higher fitness first; among equals keep the previous rank (lower index)
+            rankKeys[b] = ((long) -fitness[b] << 32) | b;
+        }
+        Arrays.sort(rankKeys);
+
+        int elites = Math.max(1, (int) (size * ELITE_FRACTION));
+        for (int r = 0; r < elites; r++) {
+            int src = (int) rankKeys[r];
+            System.arraycopy(genomes, src * GENOME_SIZE, nextGenomes, r * GENOME_SIZE, GENOME_SIZE);
+        }
+        for (int r = elites; r < size; r++) {
+            int a = (int) rankKeys[tournament()] * GENOME_SIZE;
+            int c = (int) rankKeys[tournament()] * GENOME_SIZE;
+            int dst = r * GENOME_SIZE;
+            for (int k = 0; k < GENOME_SIZE; k++) {
+                float gene = (nextLong() & 1) == 0 ? genomes[a + k] : genomes[c + k];
+                if (nextFloat() < MUTATION_RATE) gene += nextGaussianish() * MUTATION_SCALE;
+                nextGenomes[dst + k] = gene;
+            }
+        }
+        float[] t = genomes;
+        genomes = nextGenomes;
+        nextGenomes = t;
+        generation++;
+    }
+
+    /** Best rank among TOURNAMENT_SIZE random picks (ranks are sorted best first). */
+    private int tournament() {
+        int best = size;
+        for (int i = 0; i < TOURNAMENT_SIZE; i++) {
+            best = Math.min(best, (int) (nextFloat() * size));
+        }
+        return Math.min(best, size - 1);
+    }
+
+    private long nextLong() {
+        long z = (rngState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /** Cheap bell-shaped value in about [-1.5, 1.5]. */
+    private float nextGaussianish() {
+        return nextFloat() + nextFloat() + nextFloat() - 1.5f;
+    }
+}
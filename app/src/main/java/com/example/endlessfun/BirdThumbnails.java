@@ -0,0 +1,81 @@
+package com.example.endlessfun;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tinted bird icons for the catalog list, rendered on one background thread and kept in an
+ * LruCache by tint (MULTIPLY, as GameView draws the bird). The base sprite is decoded once at
+ * icon size. A recycled ImageView only gets the bitmap it was last bound to.
+ */
+final class BirdThumbnails {
+
+    private static final int CACHE_BYTES = 4 * 1024 * 1024;
+
+    private final Resources res;
+    private final int sizePx;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor();
+    private final LruCache<Integer, Bitmap> cache = new LruCache<Integer, Bitmap>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Integer tint, Bitmap bitmap) {
+            return bitmap.getByteCount();
+        }
+    };
+    private Bitmap base;  // loader thread only
+
+    BirdThumbnails(Resources res, int sizePx) {
+        this.res = res;
+        this.sizePx = sizePx;
+    }
+
+    /** Shows the icon for tint in view: at once if cached, else when rendered. */
+    void load(int tint, ImageView view) {
+        view.setTag(tint);
+        Bitmap cached = cache.get(tint);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+        view.setImageDrawable(null);
+        loader.execute(() -> {
+            Bitmap b = cache.get(tint);  // an earlier request may have rendered it
+            if (b == null) {
+                b = render(tint);
+                cache.put(tint, b);
+            }
+            Bitmap result = b;
+            view.post(() -> {
+                if (Integer.valueOf(tint).equals(view.getTag())) view.setImageBitmap(result);
+            });
+        });
+    }
+
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private Bitmap render(int tint) {
+        if (base == null) {
+            Bitmap full = BitmapFactory.decodeResource(res, R.drawable.player);
+            float scale = Math.min((float) sizePx / full.getWidth(), (float) sizePx / full.getHeight());
+            base = Bitmap.createScaledBitmap(full, Math.max(1, Math.round(full.getWidth() * scale)),
+                    Math.max(1, Math.round(full.getHeight() * scale)), true);
+        }
+        if (tint == 0) return base;
+        Bitmap out = Bitmap.createBitmap(base.getWidth(), base.getHeight(), Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        paint.setColorFilter(new PorterDuffColorFilter(tint, PorterDuff.Mode.MULTIPLY));
+        new Canvas(out).drawBitmap(base, 0, 0, paint);
+        return out;
+    }
+}
@@ -1,12 +1,48 @@
 package com.example.endlessfun;
 
-/** Unlock thresholds: bird index 1 unlocks at THRESHOLDS[0], bird 2 at THRESHOLDS[1], etc. Bird 0 is default (always). */
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unlock thresholds, taken from the Cosmetics.BIRDS catalog: bird index 1 unlocks at
+ * THRESHOLDS[0], bird 2 at THRESHOLDS[1], etc. Bird 0 is default (always).
+ */
 public final class BirdUnlock {
-    public static final int[] THRESHOLDS = { 5, 15, 30, 50 };
-    public static final int BIRD_COUNT = 1 + THRESHOLDS.length; // default + 4 unlockable
+    public static final int BIRD_COUNT = Cosmetics.BIRDS.length; // default + unlockable
+    public static final int[] THRESHOLDS = thresholds();
+
+    private static int[] thresholds() {
+        int[] t = new int[BIRD_COUNT - 1];
+        for (int i = 1; i < BIRD_COUNT; i++) t[i - 1] = Cosmetics.BIRDS[i].unlockScore;
+        return t;
+    }
+
+    /** Adds every bird whose threshold is <= highScore to unlocked. */
+    public static void addUnlocksForHighScore(Set<Integer> unlocked, int highScore) {
+        for (int i = 0; i < THRESHOLDS.length; i++) {
+            if (highScore >= THRESHOLDS[i]) unlocked.add(i + 1); // bird 0 is default, 1..N unlock by score
+        }
+    }
+
+    /** Parses the comma-separated prefs value. Bird 0 is always included. */
+    public static Set<Integer> decode(String s) {
+        Set<Integer> out = new HashSet<>();
+        out.add(0); // default always
+        if (s == null || s.isEmpty()) return out;
+        for (String part : s.split(",")) {
+            try {
+                out.add(Integer.parseInt(part.trim()));
+            } catch (NumberFormatException ignored) {}
+        }
+        return out;
+    }
 
-    public static int getUnlockScoreForBird(int birdIndex) {
-        if (birdIndex <= 0 || birdIndex > THRESHOLDS.length) return 0;
-        return THRESHOLDS[birdIndex - 1];
+    public static String encode(Set<Integer> indices) {
+        StringBuilder sb = new StringBuilder();
+        for (Integer i : indices) {
+            if (sb.length() > 0) sb.append(",");
+            sb.append(i);
+        }
+        return sb.toString();
     }
 }
@@ -0,0 +1,89 @@
+package com.example.endlessfun;
+
+/**
+ * Pixel-accurate hit shape of a sprite: one bit per pixel whose alpha is at least
+ * ALPHA_THRESHOLD, packed 64 columns to a long, row by row. Built once from the scaled sprite.
+ *
+ * hitsRect() is a broad phase against the opaque bounding box, then a narrow phase that ANDs
+ * each overlapping row's words with the rect's column range, so a check touches at most
+ * (rows overlapped) x (width / 64 + 1) words.
+ */
+public final class CollisionMask {
+
+    static final int ALPHA_THRESHOLD = 128;
+
+    final int width;
+    final int height;
+    private final int wordsPerRow;
+    private final long[] bits;  // row r, column c: bit (c & 63) of bits[r * wordsPerRow + (c >>> 6)]
+
+    // Opaque bounds, inclusive; minX > maxX when nothing is opaque
+    final int minX, maxX, minY, maxY;
+
+    private CollisionMask(int width, int height, long[] bits, int minX, int maxX, int minY, int maxY) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = bits;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /** From ARGB pixels as returned by Bitmap.getPixels (row-major, stride = width). */
+    public static CollisionMask fromArgb(int[] argb, int width, int height) {
+        int wordsPerRow = (width + 63) >>> 6;
+        long[] bits = new long[wordsPerRow * height];
+        int minX = width, maxX = -1, minY = height, maxY = -1;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int base = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                if ((argb[row + x] >>> 24) < ALPHA_THRESHOLD) continue;
+                bits[base + (x >>> 6)] |= 1L << (x & 63);
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+                if (y < minY) minY = y;
+                maxY = y;
+            }
+        }
+        return new CollisionMask(width, height, bits, minX, maxX, minY, maxY);
+    }
+
+    /**
+     * Whether an opaque pixel of this mask, drawn with its top-left corner at (left, top),
+     * overlaps the rect [rectLeft, rectRight) x [rectTop, rectBottom) (pixel i covers [i, i + 1)).
+     */
+    boolean hitsRect(float left, float top, float rectLeft, float rectTop, float rectRight, float rectBottom) {
+        // Broad phase: rect against the opaque bounds, in mask coordinates
+        int c0 = Math.max(minX, (int) Math.floor(rectLeft - left));
+        int c1 = Math.min(maxX, (int) Math.ceil(rectRight - left) - 1);
+        if (c0 > c1) return false;
+        int r0 = Math.max(minY, (int) Math.floor(rectTop - top));
+        int r1 = Math.min(maxY, (int) Math.ceil(rectBottom - top) - 1);
+        if (r0 > r1) return false;
+
+        // Narrow phase: the same column range in every row
+        int w0 = c0 >>> 6;
+        int w1 = c1 >>> 6;
+        long firstMask = -1L << (c0 & 63);
+        long lastMask = -1L >>> (63 - (c1 & 63));
+        final long[] b = bits;
+        if (w0 == w1) {
+            long m = firstMask & lastMask;
+            for (int r = r0, i = r0 * wordsPerRow + w0; r <= r1; r++, i += wordsPerRow) {
+                if ((b[i] & m) != 0) return true;
+            }
+            return false;
+        }
+        for (int r = r0; r <= r1; r++) {
+            int base = r * wordsPerRow;
+            if ((b[base + w0] & firstMask) != 0 || (b[base + w1] & lastMask) != 0) return true;
+            for (int w = w0 + 1; w < w1; w++) {
+                if (b[base + w] != 0) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.endlessfun;
+
+/**
+ * The catalog of birds and backgrounds, shared by GameView and BirdsActivity. The array index
+ * is the id stored in GamePrefs, so entries are only ever appended. Each bird carries the best
+ * score that unlocks it (BirdUnlock reads them from here); backgrounds are free.
+ */
+public final class Cosmetics {
+
+    static final class Item {
+        final int nameRes;
+        final int tint;         // birds: ARGB multiplied into the sprite, 0 = none
+        final int colorRes;     // backgrounds: fill color
+        final int unlockScore;  // best score needed, 0 = always available
+
+        Item(int nameRes, int tint, int colorRes, int unlockScore) {
+            this.nameRes = nameRes;
+            this.tint = tint;
+            this.colorRes = colorRes;
+            this.unlockScore = unlockScore;
+        }
+    }
+
+    static final Item[] BIRDS = {
+            newBird(R.string.bird_default, 0, 0),
+            newBird(R.string.bird_red, 0xFFE53935, 5),
+            newBird(R.string.bird_blue, 0xFF1E88E5, 15),
+            newBird(R.string.bird_yellow, 0xFFFDD835, 30),
+            newBird(R.string.bird_green, 0xFF43A047, 50),
+    };
+
+    static final Item[] BACKGROUNDS = {
+            newBackground(R.string.bg_cream, R.color.bg_cream),
+            newBackground(R.string.bg_sky, R.color.bg_sky),
+            newBackground(R.string.bg_grass, R.color.bg_grass),
+            newBackground(R.string.bg_sunset, R.color.bg_sunset),
+            newBackground(R.string.bg_night, R.color.bg_night),
+    };
+
+    private static Item newBird(int nameRes, int tint, int unlockScore) {
+        return new Item(nameRes, tint, 0, unlockScore);
+    }
+
+    private static Item newBackground(int nameRes, int colorRes) {
+        return new Item(nameRes, 0, colorRes, 0);
+    }
+
+    /** Bird by stored index; out-of-range indices (e.g. from an older catalog) give bird 0. */
+    static Item bird(int index) {
+        return BIRDS[index >= 0 && index < BIRDS.length ? index : 0];
+    }
+
+    static Item background(int index) {
+        return BACKGROUNDS[index >= 0 && index < BACKGROUNDS.length ? index : 0];
+    }
+}
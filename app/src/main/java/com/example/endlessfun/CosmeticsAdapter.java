@@ -0,0 +1,166 @@
+package com.example.endlessfun;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The Cosmetics catalog as one recycled list: a header, the birds, a header, the backgrounds.
+ * Rows are immutable values diffed off the main thread, so a selection change rebinds only the
+ * old and new selected rows.
+ */
+final class CosmeticsAdapter extends ListAdapter<CosmeticsAdapter.Row, CosmeticsAdapter.Holder> {
+
+    static final int TYPE_HEADER = 0;
+    static final int TYPE_BIRD = 1;
+    static final int TYPE_BACKGROUND = 2;
+
+    /** One list row. For headers, index is the title string. */
+    static final class Row {
+        final int type;
+        final int index;
+        final boolean unlocked;
+        final boolean selected;
+
+        Row(int type, int index, boolean unlocked, boolean selected) {
+            this.type = type;
+            this.index = index;
+            this.unlocked = unlocked;
+            this.selected = selected;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Row)) return false;
+            Row r = (Row) o;
+            return type == r.type && index == r.index && unlocked == r.unlocked && selected == r.selected;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((type * 31 + index) * 2 + (unlocked ? 1 : 0)) * 2 + (selected ? 1 : 0);
+        }
+    }
+
+    interface OnRowClickListener {
+        void onRowClick(Row row);
+    }
+
+    private static final DiffUtil.ItemCallback<Row> DIFF = new DiffUtil.ItemCallback<Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Row a, @NonNull Row b) {
+            return a.type == b.type && a.index == b.index;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Row a, @NonNull Row b) {
+            return a.equals(b);
+        }
+    };
+
+    private final BirdThumbnails thumbnails;
+    private final OnRowClickListener listener;
+
+    CosmeticsAdapter(BirdThumbnails thumbnails, OnRowClickListener listener) {
+        super(DIFF);
+        this.thumbnails = thumbnails;
+        this.listener = listener;
+    }
+
+    /** Rows for the whole catalog with the current unlocks and selection. */
+    static List<Row> buildRows(Set<Integer> unlockedBirds, int selectedBird, int selectedBackground) {
+        List<Row> rows = new ArrayList<>(Cosmetics.BIRDS.length + Cosmetics.BACKGROUNDS.length + 2);
+        rows.add(new Row(TYPE_HEADER, R.string.select_bird, true, false));
+        for (int i = 0; i < Cosmetics.BIRDS.length; i++) {
+            boolean unlocked = unlockedBirds.contains(i);
+            rows.add(new Row(TYPE_BIRD, i, unlocked, unlocked && i == selectedBird));
+        }
+        rows.add(new Row(TYPE_HEADER, R.string.select_background, true, false));
+        for (int i = 0; i < Cosmetics.BACKGROUNDS.length; i++) {
+            rows.add(new Row(TYPE_BACKGROUND, i, true, i == selectedBackground));
+        }
+        return rows;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).type;
+    }
+
+    @NonNull
+    @Override
+    public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        int layout = viewType == TYPE_BIRD ? R.layout.item_bird
+                : viewType == TYPE_BACKGROUND ? R.layout.item_background : R.layout.item_header;
+        Holder h = new Holder(LayoutInflater.from(parent.getContext()).inflate(layout, parent, false));
+        if (viewType != TYPE_HEADER) {
+            h.itemView.setOnClickListener(v -> {
+                int pos = h.getBindingAdapterPosition();
+                if (pos != RecyclerView.NO_POSITION) listener.onRowClick(getItem(pos));
+            });
+        }
+        return h;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull Holder h, int position) {
+        Row row = getItem(position);
+        View v = h.itemView;
+        switch (row.type) {
+            case TYPE_HEADER:
+                h.name.setText(row.index);
+                break;
+            case TYPE_BIRD: {
+                Cosmetics.Item bird = Cosmetics.BIRDS[row.index];
+                h.name.setText(bird.nameRes);
+                if (row.unlocked) {
+                    h.detail.setText(row.selected ? v.getContext().getString(R.string.selected) : "");
+                } else {
+                    h.detail.setText(v.getContext().getString(R.string.unlock_at, bird.unlockScore));
+                }
+                h.check.setVisibility(row.selected ? View.VISIBLE : View.GONE);
+                thumbnails.load(bird.tint, h.icon);
+                break;
+            }
+            case TYPE_BACKGROUND: {
+                Cosmetics.Item bg = Cosmetics.BACKGROUNDS[row.index];
+                h.name.setText(bg.nameRes);
+                h.swatch.setBackgroundColor(ContextCompat.getColor(v.getContext(), bg.colorRes));
+                h.check.setVisibility(row.selected ? View.VISIBLE : View.GONE);
+                break;
+            }
+        }
+    }
+
+    static final class Holder extends RecyclerView.ViewHolder {
+        final TextView name;
+        final TextView detail;
+        final ImageView icon;
+        final ImageView check;
+        final View swatch;
+
+        Holder(View v) {
+            super(v);
+            TextView header = v.findViewById(R.id.headerTitle);
+            TextView birdName = v.findViewById(R.id.birdName);
+            name = header != null ? header : birdName != null ? birdName : v.findViewById(R.id.backgroundName);
+            detail = v.findViewById(R.id.birdUnlock);
+            icon = v.findViewById(R.id.birdIcon);
+            ImageView birdCheck = v.findViewById(R.id.birdCheck);
+            check = birdCheck != null ? birdCheck : v.findViewById(R.id.backgroundCheck);
+            swatch = v.findViewById(R.id.backgroundSwatch);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.endlessfun;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Adaptive difficulty on top of the score ramp. Keeps exponentially weighted averages of how
+ * much room the bird leaves when passing a pipe (clearance, as a fraction of the gap), how
+ * long lives last and how often the player taps, and turns them into a skill level in
+ * [-1, 1]: -1 = struggling (slower pipes, wider gaps, more time between pipes), +1 = cruising.
+ * The level moves at most maxStep per passed pipe and drops by hitPenalty on a hit.
+ *
+ * Constant memory, a few float operations per tick. The tunables are plain fields so headless
+ * simulations (DifficultyTunerTest) can sweep them; the state is part of the run snapshot.
+ */
+public final class DifficultyTuner {
+
+    /** Bytes written by writeTo(). */
+    static final int SNAPSHOT_BYTES = 29;
+
+    // Tunables: output ranges (scale = 1 +/- level * range)
+    float speedRange = 0.12f;
+    float gapRange = 0.15f;
+    float delayRange = 0.12f;
+
+    // Tunables: targets where the level holds steady, and how fast it moves
+    float targetClearance = 0.06f;   // fraction of the gap height left to the nearer edge
+    float targetLifeTicks = 1500;   // 30 s
+    float targetTapTicks = 14;
+    float smoothing = 0.25f;        // weight of a new sample in the averages
+    float gain = 0.15f;
+    float maxStep = 0.1f;
+    float hitPenalty = 0.25f;
+    float clearanceWeight = 0.5f;
+    float lifeWeight = 0.4f;
+    float tapWeight = 0.1f;
+
+    // State
+    boolean enabled;
+    float level;
+    float clearanceAvg;
+    float lifeAvg;
+    float tapAvg;
+    int ticksThisLife;
+    int ticksSinceTap;
+    float passClearance;  // smallest clearance at the pipe being passed
+
+    public DifficultyTuner() {
+        reset(false);
+    }
+
+    /** New run: neutral level, averages at their targets. */
+    void reset(boolean enabled) {
+        this.enabled = enabled;
+        level = 0;
+        clearanceAvg = targetClearance;
+        lifeAvg = targetLifeTicks;
+        tapAvg = targetTapTicks;
+        ticksThisLife = 0;
+        ticksSinceTap = 0;
+        passClearance = Float.MAX_VALUE;
+    }
+
+    float speedScale() {
+        return enabled ? 1 + level * speedRange : 1;
+    }
+
+    float gapScale() {
+        return enabled ? 1 - level * gapRange : 1;
+    }
+
+    float delayScale() {
+        return enabled ? 1 - level * delayRange : 1;
+    }
+
+    /** Every running tick. */
+    void onTick(boolean flap) {
+        ticksThisLife++;
+        ticksSinceTap++;
+        if (flap) {
+            tapAvg += smoothing * (ticksSinceTap - tapAvg);
+            ticksSinceTap = 0;
+        }
+    }
+
+    /** While the bird overlaps a pipe: room above and below it, as fractions of the gap height. */
+    void observeClearance(float above, float below) {
+        float c = Math.min(above, below);
+        if (c < passClearance) passClearance = c;
+    }
+
+    void onPipePassed() {
+        if (passClearance != Float.MAX_VALUE) clearanceAvg += smoothing * (passClearance - clearanceAvg);
+        passClearance = Float.MAX_VALUE;
+        if (!enabled) return;
+        float life = Math.max(lifeAvg, ticksThisLife);
+        float error = clearanceWeight * relative(clearanceAvg, targetClearance)
+                + lifeWeight * relative(life, targetLifeTicks)
+                + tapWeight * relative(tapAvg, targetTapTicks);
+        level = clamp(level + clamp(gain * error, -maxStep, maxStep), -1, 1);
+    }
+
+    void onHit() {
+        lifeAvg += smoothing * (ticksThisLife - lifeAvg);
+        ticksThisLife = 0;
+        passClearance = Float.MAX_VALUE;
+        if (enabled) level = clamp(level - hitPenalty, -1, 1);
+    }
+
+    /** Copies the state (not the tunables). */
+    void copyFrom(DifficultyTuner o) {
+        enabled = o.enabled;
+        level = o.level;
+        clearanceAvg = o.clearanceAvg;
+        lifeAvg = o.lifeAvg;
+        tapAvg = o.tapAvg;
+        ticksThisLife = o.ticksThisLife;
+        ticksSinceTap = o.ticksSinceTap;
+        passClearance = o.passClearance;
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.put((byte) (enabled ? 1 : 0));
+        out.putFloat(level).putFloat(clearanceAvg).putFloat(lifeAvg).putFloat(tapAvg);
+        out.putInt(ticksThisLife).putInt(ticksSinceTap).putFloat(passClearance);
+    }
+
+    void readFrom(ByteBuffer in) {
+        enabled = in.get() != 0;
+        level = clamp(in.getFloat(), -1, 1);
+        clearanceAvg = in.getFloat();
+        lifeAvg = in.getFloat();
+        tapAvg = in.getFloat();
+        ticksThisLife = in.getInt();
+        ticksSinceTap = in.getInt();
+        passClearance = in.getFloat();
+    }
+
+    /** (value - target) / target, clamped to [-1, 1]. */
+    private static float relative(float value, float target) {
+        return clamp((value - target) / target, -1, 1);
+    }
+
+    private static float clamp(float v, float min, float max) {
+        return v < min ? min : (v > max ? max : v);
+    }
+}
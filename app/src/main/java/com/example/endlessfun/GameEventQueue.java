@@ -0,0 +1,75 @@
+package com.example.endlessfun;
+
+/**
+ * Primitive game events (type + int value, stamped with GameState.runTicks) emitted by
+ * GameState.tick for the Achievements engine. Filled and drained on the game thread under the
+ * state lock; fixed-size ring of three int arrays, no allocation per event. With rewind on,
+ * events wait here until they are older than the rewind window, and dropAfter() withdraws the
+ * ones of rewound ticks.
+ */
+public final class GameEventQueue {
+
+    static final int RUN_START = 0;
+    static final int FLAP = 1;
+    static final int PIPE_PASSED = 2;  // value: PASSED_MOVING or 0
+    static final int SCORE = 3;        // value: new score
+    static final int HIT = 4;          // value: lives left
+    static final int RUN_END = 5;      // value: final score
+    static final int TYPE_COUNT = 6;
+
+    static final int PASSED_MOVING = 1;
+
+    // Power of two; a tick emits a handful, and up to 2 s of ticks wait for the rewind window
+    private static final int CAPACITY = 1024;
+
+    private final int[] types = new int[CAPACITY];
+    private final int[] values = new int[CAPACITY];
+    private final int[] ticks = new int[CAPACITY];
+    private int head;  // next to read
+    private int size;
+
+    /** tick must not decrease between pushes. If the queue is full the oldest event is dropped. */
+    void push(int type, int value, int tick) {
+        if (size == CAPACITY) {
+            head = (head + 1) & (CAPACITY - 1);
+            size--;
+        }
+        int i = (head + size) & (CAPACITY - 1);
+        types[i] = type;
+        values[i] = value;
+        ticks[i] = tick;
+        size++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Type of the oldest event; read it and peekValue() before poll(). */
+    int peekType() {
+        return types[head];
+    }
+
+    int peekValue() {
+        return values[head];
+    }
+
+    int peekTick() {
+        return ticks[head];
+    }
+
+    void poll() {
+        head = (head + 1) & (CAPACITY - 1);
+        size--;
+    }
+
+    /** Drops the newest events stamped after tick (ticks undone by a rewind). */
+    void dropAfter(int tick) {
+        while (size > 0 && ticks[(head + size - 1) & (CAPACITY - 1)] > tick) size--;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -3,16 +3,22 @@ package com.example.endlessfun;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
-/** Stores selected bird, background, and unlocked birds (by record). */
+/** Stores selected bird, background, unlocked birds (by record) and achievements. */
 public final class GamePrefs {
 
     private static final String PREFS_NAME = "endlessfun_prefs";
     private static final String KEY_SELECTED_BIRD = "selected_bird";
     private static final String KEY_SELECTED_BACKGROUND = "selected_background";
     private static final String KEY_UNLOCKED_BIRDS = "unlocked_birds"; // comma-separated indices
+    private static final String KEY_GHOST_ENABLED = "ghost_enabled";
+    private static final String KEY_AUTOPILOT_ENABLED = "autopilot_enabled";
+    private static final String KEY_REWIND_ENABLED = "rewind_enabled";
+    private static final String KEY_ADAPTIVE_DIFFICULTY = "adaptive_difficulty";
+    private static final String KEY_ACHIEVEMENTS = "achievements"; // unlocked Achievements.Rule ids
 
     private final SharedPreferences prefs;
 
@@ -36,40 +42,98 @@ public final class GamePrefs {
         prefs.edit().putInt(KEY_SELECTED_BACKGROUND, index).apply();
     }
 
+    /** Race a translucent ghost of the best run. */
+    public boolean isGhostEnabled() {
+        return prefs.getBoolean(KEY_GHOST_ENABLED, false);
+    }
+
+    public void setGhostEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_GHOST_ENABLED, enabled).apply();
+    }
+
+    /** Let the Autopilot fly (taps still work); such runs don't set records. */
+    public boolean isAutopilotEnabled() {
+        return prefs.getBoolean(KEY_AUTOPILOT_ENABLED, false);
+    }
+
+    public void setAutopilotEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_AUTOPILOT_ENABLED, enabled).apply();
+    }
+
+    /** A pipe hit rewinds the last seconds of the run (still costs a life) instead of flying on. */
+    public boolean isRewindEnabled() {
+        return prefs.getBoolean(KEY_REWIND_ENABLED, false);
+    }
+
+    public void setRewindEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_REWIND_ENABLED, enabled).apply();
+    }
+
+    /** Pipe speed, gap and spacing follow how the player is doing (DifficultyTuner), not just the score. */
+    public boolean isAdaptiveDifficultyEnabled() {
+        return prefs.getBoolean(KEY_ADAPTIVE_DIFFICULTY, false);
+    }
+
+    public void setAdaptiveDifficultyEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_ADAPTIVE_DIFFICULTY, enabled).apply();
+    }
+
     /** Bird 0 is always unlocked. Others unlock at score thresholds. */
     public Set<Integer> getUnlockedBirds() {
-        Set<Integer> out = new HashSet<>();
-        out.add(0); // default always
-        String s = prefs.getString(KEY_UNLOCKED_BIRDS, "");
-        if (s.isEmpty()) return out;
-        for (String part : s.split(",")) {
-            try {
-                out.add(Integer.parseInt(part.trim()));
-            } catch (NumberFormatException ignored) {}
-        }
-        return out;
+        return BirdUnlock.decode(prefs.getString(KEY_UNLOCKED_BIRDS, ""));
     }
 
     public void setUnlockedBirds(Set<Integer> indices) {
-        StringBuilder sb = new StringBuilder();
-        for (Integer i : indices) {
-            if (sb.length() > 0) sb.append(",");
-            sb.append(i);
-        }
-        prefs.edit().putString(KEY_UNLOCKED_BIRDS, sb.toString()).apply();
+        prefs.edit().putString(KEY_UNLOCKED_BIRDS, BirdUnlock.encode(indices)).apply();
     }
 
     /** Call when high score is updated: unlocks birds whose threshold is <= highScore. */
     public void updateUnlocksForHighScore(int highScore) {
         Set<Integer> unlocked = getUnlockedBirds();
-        int[] thresholds = BirdUnlock.THRESHOLDS;
-        for (int i = 0; i < thresholds.length; i++) {
-            if (highScore >= thresholds[i]) unlocked.add(i + 1); // bird 0 is default, 1..N unlock by score
-        }
+        BirdUnlock.addUnlocksForHighScore(unlocked, highScore);
         setUnlockedBirds(unlocked);
     }
 
     public boolean isBirdUnlocked(int birdIndex) {
         return getUnlockedBirds().contains(birdIndex);
     }
+
+    /** Everything ProfileArchive carries from here. */
+    ProfileArchive.Settings getProfileSettings() {
+        ProfileArchive.Settings s = new ProfileArchive.Settings();
+        s.selectedBird = getSelectedBird();
+        s.selectedBackground = getSelectedBackground();
+        s.unlockedBirds = getUnlockedBirds();
+        s.achievements = getUnlockedAchievements();
+        s.ghost = isGhostEnabled();
+        s.autopilot = isAutopilotEnabled();
+        s.rewind = isRewindEnabled();
+        s.adaptiveDifficulty = isAdaptiveDifficultyEnabled();
+        return s;
+    }
+
+    /** Replaces those values with an imported profile's, in one write. */
+    void applyProfileSettings(ProfileArchive.Settings s) {
+        prefs.edit()
+                .putInt(KEY_SELECTED_BIRD, s.selectedBird)
+                .putInt(KEY_SELECTED_BACKGROUND, s.selectedBackground)
+                .putString(KEY_UNLOCKED_BIRDS, BirdUnlock.encode(s.unlockedBirds))
+                .putStringSet(KEY_ACHIEVEMENTS, new HashSet<>(s.achievements))
+                .putBoolean(KEY_GHOST_ENABLED, s.ghost)
+                .putBoolean(KEY_AUTOPILOT_ENABLED, s.autopilot)
+                .putBoolean(KEY_REWIND_ENABLED, s.rewind)
+                .putBoolean(KEY_ADAPTIVE_DIFFICULTY, s.adaptiveDifficulty)
+                .apply();
+    }
+
+    public Set<String> getUnlockedAchievements() {
+        return new HashSet<>(prefs.getStringSet(KEY_ACHIEVEMENTS, new HashSet<>()));
+    }
+
+    /** Adds a run's unlocks in one write. Call off the game thread. */
+    public void addUnlockedAchievements(Collection<String> ids) {
+        if (ids.isEmpty()) return;
+        Set<String> unlocked = getUnlockedAchievements();
+        if (unlocked.addAll(ids)) prefs.edit().putStringSet(KEY_ACHIEVEMENTS, unlocked).apply();
+    }
 }
@@ -0,0 +1,521 @@
+package com.example.endlessfun;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Everything a run needs to continue: player, obstacles, difficulty, lives, timers and RNG.
+ * Plain Java with primitive fields and fixed-size obstacle arrays (structure of arrays), so it
+ * can be snapshotted to a small binary blob and restored without allocation.
+ * Sounds, DB writes and drawing stay in GameView, which reacts to the EVENT_* flags of tick().
+ */
+public final class GameState {
+
+    // Physics
+    static final float GRAVITY = 1.2f;
+    static final float JUMP_FORCE = -18;
+
+    // Get Ready countdown (3, 2, 1, Go) — no physics/spawn until done
+    static final int COUNTDOWN_FRAMES_PER_NUMBER = 25;
+
+    // Difficulty (ramps every DIFFICULTY_INTERVAL points: faster pipes, smaller gap, more frequent spawns)
+    static final int DIFFICULTY_INTERVAL = 5;
+    static final float START_SPEED = 10f;
+    static final int MIN_GAP_HEIGHT = 200;  // the ramp stops here; the adaptive tuner doesn't narrow past it either
+
+    // Lives (jones) per round: hit obstacle = lose one; 3 hits = game over
+    static final int LIVES_MAX = 3;
+    static final int INVINCIBLE_FRAMES_AFTER_HIT = 45;
+
+    // Obstacles (what spawns when comes from ObstaclePatterns)
+    static final int MAX_OBSTACLES = 16;
+    static final float MOVING_GAP_SPEED = 2.2f;
+    static final float SLOW_PIPE_SPEED = 0.85f;    // "s" pipes (softer start)
+    static final float GAP_MARGIN = 200;           // min distance of a gap from the top and bottom edge
+    static final float COLLISION_PADDING = 10;     // box collision only (no playerMask): 10px buffer to make collisions forgiving
+
+    // tick() result flags
+    static final int EVENT_FLAP = 1;
+    static final int EVENT_SCORED = 1 << 1;
+    static final int EVENT_HIT = 1 << 2;        // lost a life on a pipe
+    static final int EVENT_GAME_OVER = 1 << 3;  // floor or last life
+
+    /** Snapshot format version; bump when the field list in writeTo/readFrom changes. */
+    static final int SNAPSHOT_VERSION = 4;
+    private static final int SNAPSHOT_HEADER_BYTES = 99 + DifficultyTuner.SNAPSHOT_BYTES;  // everything before the obstacles
+    private static final int SNAPSHOT_OBSTACLE_BYTES = 25;
+    /** Upper bound of writeTo() output, for preallocating buffers. */
+    static final int SNAPSHOT_MAX_BYTES = SNAPSHOT_HEADER_BYTES + MAX_OBSTACLES * SNAPSHOT_OBSTACLE_BYTES;
+
+    private static final byte FLAG_PASSED = 1;
+    private static final byte FLAG_MOVING = 2;
+
+    // Screen and sprite size
+    int width, height;
+    float playerW, playerH;
+    CollisionMask playerMask;  // pixel-accurate hits when set (not part of snapshots; derived from the sprite)
+
+    // Player
+    float playerX, playerY;
+    float velocityY;
+
+    // Run
+    boolean gameOver;
+    boolean countdownActive;
+    int countdownFramesLeft;
+    int score;
+    int initialHighScore;  // high score at start of this run (for "New record!")
+    int lives = LIVES_MAX;
+    int invincibleFramesLeft;  // brief invincibility after hit so one pipe doesn't take multiple lives
+    int runTicks;  // ticks played after the countdown; stamps events, so rewound ones can be dropped
+    int jumps;     // flaps this run (rewound flaps don't count)
+
+    // Difficulty (score ramp, scaled by the adaptive tuner when enabled)
+    final DifficultyTuner tuner = new DifficultyTuner();
+    float obstacleSpeed = START_SPEED;
+    int spawnDelay = 90;
+    int gapHeight = 300;
+    int lastDifficultyScore;
+    int spawnTimer;
+
+    // RNG (SplitMix64) so a snapshot continues with the same pipe sequence
+    long rngState;
+
+    // Obstacle patterns: the table (shared, not part of snapshots) and where this run is in it
+    ObstaclePatterns patterns = ObstaclePatterns.DEFAULT;
+    int patternIndex = -1;  // -1 = pick one when the next pipe is due
+    int patternStep;        // next step of patternIndex to spawn
+    float lastGapPos = 0.5f;  // previous pipe's gap position in 0..1, for relative steps
+
+    // Events for the Achievements engine (live run only: not copied, not in snapshots); null = none
+    GameEventQueue eventQueue;
+
+    // Obstacles, indices 0..obstacleCount-1, oldest first
+    int obstacleCount;
+    final float[] obstX = new float[MAX_OBSTACLES];
+    final float[] obstWidth = new float[MAX_OBSTACLES];
+    final float[] gapCenterY = new float[MAX_OBSTACLES];
+    final float[] gapH = new float[MAX_OBSTACLES];
+    final float[] gapVelocityY = new float[MAX_OBSTACLES];
+    final float[] speedMult = new float[MAX_OBSTACLES];  // softer start: first few pipes move slower
+    final boolean[] passed = new boolean[MAX_OBSTACLES];
+    final boolean[] movingGap = new boolean[MAX_OBSTACLES];
+
+    void setScreen(int width, int height, float playerW, float playerH) {
+        this.width = width;
+        this.height = height;
+        this.playerW = playerW;
+        this.playerH = playerH;
+        playerX = width / 4f;
+    }
+
+    /** Sprite alpha mask for hitsPlayer, playerW x playerH; null falls back to the padded box. */
+    void setPlayerMask(CollisionMask mask) {
+        playerMask = mask;
+    }
+
+    void setPatterns(ObstaclePatterns patterns) {
+        this.patterns = patterns;
+        patternIndex = -1;
+    }
+
+    /** New run: full lives, start difficulty, countdown, no pipes. */
+    void reset(long seed, int spawnDelay, int initialHighScore) {
+        obstacleCount = 0;
+        score = 0;
+        this.initialHighScore = initialHighScore;
+        playerY = height / 2f;
+        velocityY = 0;
+        obstacleSpeed = START_SPEED;
+        this.spawnDelay = spawnDelay;
+        spawnTimer = 0;
+        lastDifficultyScore = 0;
+        gapHeight = (int) playerH * 3;
+        lives = LIVES_MAX;
+        invincibleFramesLeft = 0;
+        runTicks = 0;
+        jumps = 0;
+        gameOver = false;
+        countdownActive = true;
+        countdownFramesLeft = 4 * COUNTDOWN_FRAMES_PER_NUMBER;
+        rngState = seed;
+        patternIndex = -1;
+        patternStep = 0;
+        lastGapPos = 0.5f;
+        tuner.reset(tuner.enabled);
+    }
+
+    /** Adaptive difficulty for this and later runs (takes effect from the neutral level). */
+    void setAdaptiveDifficulty(boolean enabled) {
+        tuner.reset(enabled);
+    }
+
+    /**
+     * One simulation step. flap = a tap was applied this tick. Returns EVENT_* flags. Events for
+     * eventQueue are stamped with runTicks; RUN_END comes last, once, on the tick the run ends.
+     */
+    int tick(boolean flap) {
+        if (gameOver) return 0;
+
+        if (countdownActive) {
+            countdownFramesLeft--;
+            if (countdownFramesLeft <= 0) countdownActive = false;
+            return 0;
+        }
+        int events = 0;
+        runTicks++;
+
+        rampDifficulty();
+
+        if (invincibleFramesLeft > 0) invincibleFramesLeft--;
+
+        // Physics
+        if (flap) {
+            velocityY = JUMP_FORCE;
+            events |= EVENT_FLAP;
+            jumps++;
+            emit(GameEventQueue.FLAP, 0);
+        }
+        velocityY += GRAVITY;
+        playerY += velocityY;
+
+        // Ceiling: bird cannot go above top of screen (so it can't fly over obstacles)
+        float minY = playerH / 2f;
+        if (playerY < minY) {
+            playerY = minY;
+            velocityY = Math.max(0, velocityY);
+        }
+
+        if (playerY > height - playerH / 2f) {
+            gameOver = true;  // floor death
+            events |= EVENT_GAME_OVER;
+        }
+        tuner.onTick(flap);
+
+        spawnIfDue();
+
+        // Update pipes
+        float speed = obstacleSpeed * tuner.speedScale();
+        float spriteLeft = playerX - playerW / 2f;
+        float spriteRight = playerX + playerW / 2f;
+        for (int i = 0; i < obstacleCount; i++) {
+            updateObstacle(i, speed);
+
+            if (obstX[i] + obstWidth[i] < 0) {
+                removeObstacle(i--);
+                continue;
+            }
+
+            // Score
+            if (!passed[i] && obstX[i] + obstWidth[i] < playerX) {
+                passed[i] = true;
+                score++;
+                events |= EVENT_SCORED;
+                tuner.onPipePassed();
+                emit(GameEventQueue.PIPE_PASSED, movingGap[i] ? GameEventQueue.PASSED_MOVING : 0);
+                emit(GameEventQueue.SCORE, score);
+            } else if (!passed[i] && obstX[i] < spriteRight && spriteLeft < obstX[i] + obstWidth[i]) {
+                tuner.observeClearance(
+                        (playerY - playerH / 2f - gapTop(i)) / gapH[i],
+                        (gapBottom(i) - playerY - playerH / 2f) / gapH[i]);
+            }
+
+            // Collision (skip while invincible after a hit)
+            if (invincibleFramesLeft > 0) continue;
+
+            if (hitsPlayer(i)) {
+                lives--;
+                events |= EVENT_HIT;
+                tuner.onHit();
+                emit(GameEventQueue.HIT, lives);
+                removeObstacle(i);  // so we don't lose multiple lives from one pipe
+                invincibleFramesLeft = INVINCIBLE_FRAMES_AFTER_HIT;
+                if (lives <= 0) {
+                    gameOver = true;
+                    events |= EVENT_GAME_OVER;
+                }
+                break;  // only one hit per frame
+            }
+        }
+        if (gameOver) emit(GameEventQueue.RUN_END, score);  // after this tick's scoring
+        return events;
+    }
+
+    /**
+     * Advances only the shared pipe field (difficulty, spawn, movement, off-screen removal) with
+     * no player, scoring or collision. Used when many birds fly through one field (BirdSwarm);
+     * the caller sets score to drive difficulty.
+     */
+    void tickField() {
+        rampDifficulty();
+        spawnIfDue();
+        for (int i = 0; i < obstacleCount; i++) {
+            updateObstacle(i, obstacleSpeed);
+            if (obstX[i] + obstWidth[i] < 0) removeObstacle(i--);
+        }
+    }
+
+    private void emit(int type, int value) {
+        if (eventQueue != null) eventQueue.push(type, value, runTicks);
+    }
+
+    /** Difficulty scaling: every DIFFICULTY_INTERVAL points, game gets harder. */
+    private void rampDifficulty() {
+        if (score >= lastDifficultyScore + DIFFICULTY_INTERVAL) {
+            obstacleSpeed += 0.3f;
+            gapHeight = Math.max(MIN_GAP_HEIGHT, gapHeight - 10);
+            spawnDelay = Math.max(50, spawnDelay - 2);
+            lastDifficultyScore = score;
+        }
+    }
+
+    /**
+     * Spawns the next step of the current obstacle pattern when its delay is up. After a pattern
+     * ends, the next one is picked by score (weighted) once the shortest first-step delay is up,
+     * so it sees the score its first pipe spawns at. Table lookups only.
+     */
+    private void spawnIfDue() {
+        ObstaclePatterns p = patterns;
+        spawnTimer++;
+        if (patternIndex < 0) {
+            if (spawnTimer <= spawnDelay * p.minFirstDelay * tuner.delayScale()) return;
+            patternIndex = p.choose(score, nextFloat());
+            patternStep = 0;
+        }
+        int step = p.patternStart[patternIndex] + patternStep;
+        if (spawnTimer <= spawnDelay * p.stepDelay[step] * tuner.delayScale()) return;
+
+        float gh = gapHeight * p.stepGap[step];
+        gh = Math.max(gh * tuner.gapScale(), Math.min(gh, MIN_GAP_HEIGHT));
+        float pos;
+        switch (p.stepPosMode[step]) {
+            case ObstaclePatterns.POS_RANDOM:
+                pos = nextFloat();
+                break;
+            case ObstaclePatterns.POS_RELATIVE:
+                pos = Math.max(0, Math.min(1, lastGapPos + p.stepPos[step]));
+                break;
+            default:
+                pos = p.stepPos[step];
+        }
+        lastGapPos = pos;
+        float minTop = GAP_MARGIN;
+        float maxTop = height - gh - GAP_MARGIN;
+        if (maxTop <= minTop) maxTop = minTop + 100;
+
+        int flags = p.stepFlags[step];
+        float gapVelocity = 0;
+        if ((flags & ObstaclePatterns.FLAG_UP) != 0) gapVelocity = -MOVING_GAP_SPEED;
+        else if ((flags & ObstaclePatterns.FLAG_DOWN) != 0) gapVelocity = MOVING_GAP_SPEED;
+        else if ((flags & ObstaclePatterns.FLAG_MOVING) != 0) gapVelocity = (nextBoolean() ? 1 : -1) * MOVING_GAP_SPEED;
+        addObstacle(width, minTop + pos * (maxTop - minTop), gh, gapVelocity, (flags & ObstaclePatterns.FLAG_SLOW) != 0);
+        spawnTimer = 0;
+
+        if (++patternStep == p.patternLength[patternIndex]) patternIndex = -1;
+    }
+
+    float gapTop(int i) {
+        return gapCenterY[i] - gapH[i] / 2f;
+    }
+
+    float gapBottom(int i) {
+        return gapCenterY[i] + gapH[i] / 2f;
+    }
+
+    /**
+     * Player against pipe i's top and bottom rects: the sprite mask when set, else the padded
+     * box (same test as RectF.intersects).
+     */
+    boolean hitsPlayer(int i) {
+        if (playerMask != null) {
+            float spriteLeft = playerX - playerW / 2f;
+            float spriteTop = playerY - playerH / 2f;
+            float x = obstX[i];
+            float r = x + obstWidth[i];
+            return playerMask.hitsRect(spriteLeft, spriteTop, x, 0, r, gapTop(i))
+                    || playerMask.hitsRect(spriteLeft, spriteTop, x, gapBottom(i), r, height);
+        }
+        float left = playerX - playerW / 2f + COLLISION_PADDING;
+        float right = playerX + playerW / 2f - COLLISION_PADDING;
+        float x = obstX[i];
+        if (!(left < x + obstWidth[i] && x < right)) return false;
+        float top = playerY - playerH / 2f + COLLISION_PADDING;
+        float bottom = playerY + playerH / 2f - COLLISION_PADDING;
+        return (top < gapTop(i) && 0 < bottom) || (top < height && gapBottom(i) < bottom);
+    }
+
+    private void addObstacle(float x, float gapTop, float gh, float gapVelocity, boolean slow) {
+        if (obstacleCount == MAX_OBSTACLES) return;
+        int i = obstacleCount++;
+        obstX[i] = x;
+        obstWidth[i] = width / 8f;
+        gapH[i] = gh;
+        gapCenterY[i] = gapTop + gh / 2f;
+        movingGap[i] = gapVelocity != 0;
+        gapVelocityY[i] = gapVelocity;
+        speedMult[i] = slow ? SLOW_PIPE_SPEED : 1f;
+        passed[i] = false;
+    }
+
+    private void updateObstacle(int i, float speed) {
+        obstX[i] -= speed * speedMult[i];
+        if (!movingGap[i]) return;
+        gapCenterY[i] += gapVelocityY[i];
+        float minCenter = 180 + gapH[i] / 2f;
+        float maxCenter = height - 180 - gapH[i] / 2f;
+        if (gapCenterY[i] <= minCenter) {
+            gapCenterY[i] = minCenter;
+            gapVelocityY[i] = -gapVelocityY[i];
+        }
+        if (gapCenterY[i] >= maxCenter) {
+            gapCenterY[i] = maxCenter;
+            gapVelocityY[i] = -gapVelocityY[i];
+        }
+    }
+
+    private void removeObstacle(int i) {
+        int tail = obstacleCount - i - 1;
+        if (tail > 0) {
+            System.arraycopy(obstX, i + 1, obstX, i, tail);
+            System.arraycopy(obstWidth, i + 1, obstWidth, i, tail);
+            System.arraycopy(gapCenterY, i + 1, gapCenterY, i, tail);
+            System.arraycopy(gapH, i + 1, gapH, i, tail);
+            System.arraycopy(gapVelocityY, i + 1, gapVelocityY, i, tail);
+            System.arraycopy(speedMult, i + 1, speedMult, i, tail);
+            System.arraycopy(passed, i + 1, passed, i, tail);
+            System.arraycopy(movingGap, i + 1, movingGap, i, tail);
+        }
+        obstacleCount--;
+    }
+
+    private long nextLong() {
+        long z = (rngState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /** Makes this an exact copy of other (no allocation; only live obstacles are copied). */
+    void copyFrom(GameState o) {
+        width = o.width;
+        height = o.height;
+        playerW = o.playerW;
+        playerH = o.playerH;
+        playerMask = o.playerMask;
+        playerX = o.playerX;
+        playerY = o.playerY;
+        velocityY = o.velocityY;
+        gameOver = o.gameOver;
+        countdownActive = o.countdownActive;
+        countdownFramesLeft = o.countdownFramesLeft;
+        score = o.score;
+        initialHighScore = o.initialHighScore;
+        lives = o.lives;
+        invincibleFramesLeft = o.invincibleFramesLeft;
+        runTicks = o.runTicks;
+        jumps = o.jumps;
+        obstacleSpeed = o.obstacleSpeed;
+        spawnDelay = o.spawnDelay;
+        gapHeight = o.gapHeight;
+        lastDifficultyScore = o.lastDifficultyScore;
+        spawnTimer = o.spawnTimer;
+        rngState = o.rngState;
+        patterns = o.patterns;
+        patternIndex = o.patternIndex;
+        patternStep = o.patternStep;
+        lastGapPos = o.lastGapPos;
+        tuner.copyFrom(o.tuner);
+        int n = o.obstacleCount;
+        obstacleCount = n;
+        System.arraycopy(o.obstX, 0, obstX, 0, n);
+        System.arraycopy(o.obstWidth, 0, obstWidth, 0, n);
+        System.arraycopy(o.gapCenterY, 0, gapCenterY, 0, n);
+        System.arraycopy(o.gapH, 0, gapH, 0, n);
+        System.arraycopy(o.gapVelocityY, 0, gapVelocityY, 0, n);
+        System.arraycopy(o.speedMult, 0, speedMult, 0, n);
+        System.arraycopy(o.passed, 0, passed, 0, n);
+        System.arraycopy(o.movingGap, 0, movingGap, 0, n);
+    }
+
+    /** Writes the whole run (at most SNAPSHOT_MAX_BYTES). Byte order is the buffer's. */
+    void writeTo(ByteBuffer out) {
+        out.put((byte) SNAPSHOT_VERSION);
+        out.putInt(width).putInt(height).putFloat(playerW).putFloat(playerH);
+        out.putFloat(playerX).putFloat(playerY).putFloat(velocityY);
+        out.put((byte) ((gameOver ? 1 : 0) | (countdownActive ? 2 : 0)));
+        out.putInt(countdownFramesLeft).putInt(score).putInt(initialHighScore);
+        out.putInt(lives).putInt(invincibleFramesLeft).putInt(runTicks).putInt(jumps);
+        out.putFloat(obstacleSpeed).putInt(spawnDelay).putInt(gapHeight);
+        out.putInt(lastDifficultyScore).putInt(spawnTimer);
+        out.putLong(rngState);
+        out.putInt(patternIndex).putInt(patternStep).putFloat(lastGapPos);
+        tuner.writeTo(out);
+        out.put((byte) obstacleCount);
+        for (int i = 0; i < obstacleCount; i++) {
+            out.putFloat(obstX[i]).putFloat(obstWidth[i]).putFloat(gapCenterY[i]).putFloat(gapH[i]);
+            out.putFloat(gapVelocityY[i]).putFloat(speedMult[i]);
+            out.put((byte) ((passed[i] ? FLAG_PASSED : 0) | (movingGap[i] ? FLAG_MOVING : 0)));
+        }
+    }
+
+    /** Reads a writeTo() blob. Returns false (state untouched) on an unknown version or bad count. */
+    boolean readFrom(ByteBuffer in) {
+        if (in.remaining() < 1 || in.get(in.position()) != SNAPSHOT_VERSION) return false;
+        if (in.remaining() < SNAPSHOT_HEADER_BYTES) return false;
+        int count = in.get(in.position() + SNAPSHOT_HEADER_BYTES - 1);
+        if (count < 0 || count > MAX_OBSTACLES
+                || in.remaining() < SNAPSHOT_HEADER_BYTES + count * SNAPSHOT_OBSTACLE_BYTES) return false;
+        in.get();
+        width = in.getInt();
+        height = in.getInt();
+        playerW = in.getFloat();
+        playerH = in.getFloat();
+        playerX = in.getFloat();
+        playerY = in.getFloat();
+        velocityY = in.getFloat();
+        byte flags = in.get();
+        gameOver = (flags & 1) != 0;
+        countdownActive = (flags & 2) != 0;
+        countdownFramesLeft = in.getInt();
+        score = in.getInt();
+        initialHighScore = in.getInt();
+        lives = in.getInt();
+        invincibleFramesLeft = in.getInt();
+        runTicks = in.getInt();
+        jumps = in.getInt();
+        obstacleSpeed = in.getFloat();
+        spawnDelay = in.getInt();
+        gapHeight = in.getInt();
+        lastDifficultyScore = in.getInt();
+        spawnTimer = in.getInt();
+        rngState = in.getLong();
+        patternIndex = in.getInt();
+        patternStep = in.getInt();
+        lastGapPos = in.getFloat();
+        if (patternIndex < -1 || patternIndex >= patterns.size() || patternIndex >= 0
+                && (patternStep < 0 || patternStep >= patterns.patternLength[patternIndex])) {
+            patternIndex = -1;  // saved with a different pattern table: start a fresh pattern
+        }
+        tuner.readFrom(in);
+        obstacleCount = in.get();
+        for (int i = 0; i < obstacleCount; i++) {
+            obstX[i] = in.getFloat();
+            obstWidth[i] = in.getFloat();
+            gapCenterY[i] = in.getFloat();
+            gapH[i] = in.getFloat();
+            gapVelocityY[i] = in.getFloat();
+            speedMult[i] = in.getFloat();
+            byte f = in.get();
+            passed[i] = (f & FLAG_PASSED) != 0;
+            movingGap[i] = (f & FLAG_MOVING) != 0;
+        }
+        return true;
+    }
+}
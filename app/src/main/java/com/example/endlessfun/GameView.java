@@ -13,166 +13,149 @@ import android.graphics.PorterDuffColorFilter;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.media.SoundPool;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
+import android.util.Log;
+import android.view.Choreographer;
 import android.graphics.drawable.Drawable;
 import android.view.MotionEvent;
 import android.view.View;
+import android.widget.Toast;
 
+import androidx.annotation.VisibleForTesting;
 import androidx.core.content.ContextCompat;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Random;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 public class GameView extends View implements Runnable {
 
     // Thread & state
-    private Thread gameThread;
-    private boolean isPlaying = true;
-    private boolean isGameOver = false;
+    private Thread gameThread;  // null until a run starts and after the view is detached
+    private volatile boolean isPlaying = true;
+    private boolean runInProgress;
     private boolean isPaused = false;
 
-    // Get Ready countdown (3, 2, 1, Go) — no physics/spawn until done
-    private boolean isCountdownActive = false;
-    private int countdownFramesLeft = 0;
-    private static final int COUNTDOWN_FRAMES_PER_NUMBER = 25;
+    // Fixed-step game loop (uptime clock, same time base as MotionEvent.getEventTime())
+    private static final long TICK_MS = 20;
+    private static final int MAX_CATCHUP_TICKS = 5;  // after a long stall, resync instead of fast-forwarding
+
+    // Input: taps are queued with their event time and applied at the matching tick
+    private static final String TAG = "GameView";
+    private static final int LATENCY_LOG_EVERY = 20;
+    private final TapQueue tapQueue = new TapQueue();
+    private final LatencyStats flapLatency = new LatencyStats();
+    private volatile long pendingFlapEventTime = -1;  // set by game thread when a tap is applied, consumed by onDraw
+    private long drawnFlapEventTime = -1;  // drawn by onDraw, timed when that frame is presented (UI thread)
+    private final Choreographer.FrameCallback flapPresented = frameTimeNanos -> {
+        recordFlapLatency(frameTimeNanos / 1_000_000 - drawnFlapEventTime);
+        drawnFlapEventTime = -1;
+    };
 
-    // Player
-    private float playerX, playerY;
-    private float velocityY = 0;
-    private final float gravity = 1.2f;
-    private final float jumpForce = -18;
+    // Run state (player, pipes, difficulty, lives, timers, RNG). Ticked on the game thread under its lock.
+    private final GameState state = new GameState();
 
     // Bitmaps
     private Bitmap playerBitmap;
     private Bitmap obstacleBitmap;
 
-    // Difficulty (ramps every DIFFICULTY_INTERVAL points: faster pipes, smaller gap, more frequent spawns)
-    private static final int DIFFICULTY_INTERVAL = 5;
-    private float obstacleSpeed = 5f;
-    private int spawnDelay = 90;
-    private int gapHeight = 300;
-    private int lastDifficultyScore = 0;
-
-    // Lives (jones) per round: hit obstacle = lose one; 3 hits = game over
-    private static final int LIVES_MAX = 3;
-    private int lives = LIVES_MAX;
-    private int invincibleFramesLeft = 0;  // brief invincibility after hit so one pipe doesn't take multiple lives
-    private static final int INVINCIBLE_FRAMES_AFTER_HIT = 45;
-
-    // Medal thresholds (score >= value)
-    private static final int MEDAL_BRONZE = 10;
-    private static final int MEDAL_SILVER = 25;
-    private static final int MEDAL_GOLD = 50;
-    private static final int MEDAL_PLATINUM = 100;
-
-    // Obstacles (normal + moving-gap variant)
-    private static final float MOVING_GAP_SPEED = 2.2f;
-    private static final float MOVING_GAP_CHANCE = 0.35f;  // chance after first 2 pipes
-    private static final int SOFTER_START_PIPES = 3;       // first N pipes: wider gap, slower
-
-    private class ObstaclePair {
-        RectF topRect;
-        RectF bottomRect;
-        boolean passed = false;
-        boolean movingGap;
-        float obstX;
-        float obstWidth;
-        float gapCenterY;
-        float gapHeightThis;
-        float gapVelocityY;
-
-        float speedMult = 1f;  // softer start: first few pipes move slower
-
-        ObstaclePair(float x, float gapTop, float gapH, boolean moving, boolean softerStart) {
-            float width = getWidth() / 8f;
-            obstX = x;
-            obstWidth = width;
-            gapHeightThis = gapH;
-            movingGap = moving;
-            speedMult = softerStart ? 0.85f : 1f;
-            if (moving) {
-                gapCenterY = gapTop + gapH / 2f;
-                gapVelocityY = (random.nextBoolean() ? 1 : -1) * MOVING_GAP_SPEED;
-                topRect = new RectF(x, 0, x + width, gapCenterY - gapH / 2f);
-                bottomRect = new RectF(x, gapCenterY + gapH / 2f, x + width, getHeight());
-            } else {
-                topRect = new RectF(x, 0, x + width, gapTop);
-                bottomRect = new RectF(x, gapTop + gapH, x + width, getHeight());
-            }
-        }
-
-        void update() {
-            float speed = obstacleSpeed * speedMult;
-            obstX -= speed;
-            if (movingGap) {
-                gapCenterY += gapVelocityY;
-                float minCenter = 180 + gapHeightThis / 2f;
-                float maxCenter = getHeight() - 180 - gapHeightThis / 2f;
-                if (gapCenterY <= minCenter) {
-                    gapCenterY = minCenter;
-                    gapVelocityY = -gapVelocityY;
-                }
-                if (gapCenterY >= maxCenter) {
-                    gapCenterY = maxCenter;
-                    gapVelocityY = -gapVelocityY;
-                }
-                topRect.set(obstX, 0, obstX + obstWidth, gapCenterY - gapHeightThis / 2f);
-                bottomRect.set(obstX, gapCenterY + gapHeightThis / 2f, obstX + obstWidth, getHeight());
-            } else {
-                topRect.offset(-speed, 0);
-                bottomRect.offset(-speed, 0);
-            }
-        }
-    }
-
-
-
-    private final ArrayList<ObstaclePair> obstacles = new ArrayList<>();
-    private final Random random = new Random();
-    private int spawnTimer = 0;
+    // Medals by Medals tier (thresholds live there)
+    private static final int[] MEDAL_DRAWABLE_IDS = {
+            R.drawable.medal_bronze, R.drawable.medal_silver, R.drawable.medal_gold, R.drawable.medal_platinum };
+    private static final String[] MEDAL_NAMES = { "Bronze", "Silver", "Gold", "Platinum" };
 
     // Score
-    private int score = 0;
     private int highScore = 0;
-    private int initialHighScore = 0; // high score at start of this run (for "New record!")
+
+    // Saved instance state (process death mid-run)
+    private static final String STATE_SUPER = "super";
+    private static final String STATE_RUN = "run";
+    private static final String STATE_GHOST_RECORDING = "ghost_recording";
+    private static final String STATE_GHOST_RECORDED_TICKS = "ghost_recorded_ticks";
+
+    // Ghost of the best run: this run is always recorded; the best one is raced when enabled in GamePrefs
+    private static final int GHOST_ALPHA = 90;
+    private final GhostTrack ghostRecorder = new GhostTrack();
+    private final GhostTrack ghostPlayback = new GhostTrack();
+    private volatile byte[] bestGhostData;  // encoded GhostTrack loaded from / saved to the DB
+    private float ghostY = Float.NaN;        // NaN = no ghost on screen
+
+    // Assist mode: the Autopilot taps too (game thread only); runs flown with it don't set records
+    private final Autopilot autopilot = new Autopilot();
+    private boolean autopilotRun;
+
+    // Rewind on hit: every running tick is snapshotted; a hit plays the buffer backward
+    // REWIND_STEP ticks per frame, then resumes with a short countdown (game thread only)
+    private static final int REWIND_TICKS = 2 * RewindBuffer.TICKS_PER_SECOND;
+    private static final int REWIND_STEP = 2;
+    private static final int REWIND_TINT = Color.argb(60, 255, 255, 255);
+    private final RewindBuffer rewindBuffer = new RewindBuffer();
+    private boolean rewindRun;
+    private volatile boolean rewinding;
+    private int rewoundTicks;
+    private int livesAfterHit;
+
+    // Achievements: GameState emits events into the queue, drained into the engine after each
+    // tick (under the state lock); new unlocks are saved off the game thread at game over.
+    // On rewind runs, events wait until REWIND_TICKS old so rewound ticks can be withdrawn.
+    private final GameEventQueue eventQueue = new GameEventQueue();
+    private final Achievements achievements = Achievements.createDefault();
 
     // DB & prefs
     private AppDatabase db;
     private GamePrefs gamePrefs;
 
-    // Bird tint colors (index 0 = no filter)
-    private static final int[] BIRD_TINT_COLORS = {
-            0,           // 0 = no tint (use 0 to skip filter)
-            Color.parseColor("#E53935"), // 1 red
-            Color.parseColor("#1E88E5"), // 2 blue
-            Color.parseColor("#FDD835"), // 3 yellow
-            Color.parseColor("#43A047"), // 4 green
-    };
-
-    private static final int[] BACKGROUND_COLOR_IDS = {
-            R.color.bg_cream,
-            R.color.bg_sky,
-            R.color.bg_grass,
-            R.color.bg_sunset,
-            R.color.bg_night,
-    };
+    // Selected bird's tint (Cosmetics), built once per tint instead of every frame
+    private int birdFilterTint;
+    private PorterDuffColorFilter birdFilter;
 
     // Sound
     private SoundPool soundPool;
     private int jumpSound, hitSound, scoreSound, winSound;
 
     // Paint
-    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paint;
+
+    // onDraw allocates nothing in a steady frame: colors, text and medals are looked up once,
+    // HUD strings are rebuilt only when their number changes (see RenderBudgetTest)
+    private static final String[] COUNTDOWN_LABELS = { "Go!", "1", "2", "3" };
+    private int[] backgroundColors;
+    private int pipeColor, pipeBorder, hudBgColor, gameOverOverlayColor;
+    private String changeBackgroundText;
+    // Medals are vector drawables: drawn at two sizes per frame, a VectorDrawable re-rasterizes
+    // its cache bitmap on every size change, so each tier is rasterized once per size instead
+    private static final int MEDAL_HUD_PX = 36;
+    private static final int MEDAL_GAME_OVER_PX = 64;
+    private final Bitmap[] medalHudBitmaps = new Bitmap[MEDAL_NAMES.length];
+    private final Bitmap[] medalGameOverBitmaps = new Bitmap[MEDAL_NAMES.length];
+    private final String[] medalLabels = new String[MEDAL_NAMES.length];
+    private int hudScore = -1, hudHigh = -1, hudLives = -1;
+    private String scoreStr, highStr, livesStr;
+    private final Rect scoreBounds = new Rect();
+    private final Rect highBounds = new Rect();
+    private final Rect livesBounds = new Rect();
+    private final Rect changeBgBounds = new Rect();
 
     // Game over "Change background" button bounds (set in onDraw when game over)
     private final RectF changeBackgroundBounds = new RectF();
 
     public GameView(Context context, AttributeSet attrs) {
-        super(context, attrs);
+        this(context, attrs, new Paint(Paint.ANTI_ALIAS_FLAG));
+    }
 
+    /** paint is the one Paint onDraw uses; render-cost tests pass one that counts state changes. */
+    @VisibleForTesting
+    GameView(Context context, AttributeSet attrs, Paint paint) {
+        super(context, attrs);
+        this.paint = paint;
         init(context);
-
     }
 
     private void init(Context context) {
@@ -193,9 +176,29 @@ public class GameView extends View implements Runnable {
                 screenWidth / 8,
                 screenHeight / 18,
                 true);
+        // Hit shape from the scaled sprite's alpha (pixel-accurate collision)
+        int[] pixels = new int[playerBitmap.getWidth() * playerBitmap.getHeight()];
+        playerBitmap.getPixels(pixels, 0, playerBitmap.getWidth(), 0, 0, playerBitmap.getWidth(), playerBitmap.getHeight());
+        state.setPlayerMask(CollisionMask.fromArgb(pixels, playerBitmap.getWidth(), playerBitmap.getHeight()));
+
+        // Obstacle patterns, compiled once into spawn tables; a broken file keeps the built-in rule
+        try (InputStream in = getResources().openRawResource(R.raw.obstacle_patterns)) {
+            state.setPatterns(ObstaclePatterns.read(in));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.e(TAG, "obstacle_patterns not loaded, using built-in patterns", e);
+        }
 
-        // Gap height based on player
-        gapHeight = playerBitmap.getHeight() * 3;
+        // Colors and text drawn every frame
+        Resources res = getResources();
+        backgroundColors = new int[Cosmetics.BACKGROUNDS.length];
+        for (int i = 0; i < backgroundColors.length; i++) {
+            backgroundColors[i] = res.getColor(Cosmetics.BACKGROUNDS[i].colorRes, null);
+        }
+        pipeColor = res.getColor(R.color.pipe_color, null);
+        pipeBorder = res.getColor(R.color.pipe_border, null);
+        hudBgColor = res.getColor(R.color.hud_bg, null);
+        gameOverOverlayColor = res.getColor(R.color.game_over_overlay, null);
+        changeBackgroundText = context.getString(R.string.change_background);
 
         // Obstacle bitmap (if using image, otherwise ignore)
         obstacleBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.obstacle);
@@ -210,214 +213,346 @@ public class GameView extends View implements Runnable {
         super.onAttachedToWindow();
         if (gamePrefs == null) gamePrefs = new GamePrefs(getContext());
         // Load high score early so it's ready when user taps Play
-        if (db == null) {
-            db = AppDatabase.getInstance(getContext());
-            new Thread(() -> {
-                Integer saved = db.scoreDao().getHighScore();
-                highScore = saved != null ? saved : 0;
-            }).start();
+        if (db == null) reloadSavedData();
+    }
+
+    /** Reads the high score and best ghost from the DB again (e.g. after a profile import). */
+    public void reloadSavedData() {
+        if (db == null) db = AppDatabase.getInstance(getContext());
+        new Thread(() -> {
+            Integer saved = db.scoreDao().getHighScore();
+            highScore = saved != null ? saved : 0;
+            bestGhostData = db.scoreDao().getGhost();
+        }).start();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        synchronized (state) {
+            boolean idle = !runInProgress;
+            state.setScreen(w, h, playerBitmap.getWidth(), playerBitmap.getHeight());
+            if (idle) state.playerY = h / 2f;
         }
     }
 
     public void startGame() {
-        if (gameThread == null || !gameThread.isAlive()) {
-            isPlaying = true;
-            isGameOver = false;
-            obstacles.clear();
-            score = 0;
-            initialHighScore = highScore;
-            velocityY = 0;
-            obstacleSpeed = 10f;
-            spawnDelay = 90;
-            lastDifficultyScore = 0;
-            gapHeight = playerBitmap.getHeight() * 3;
-            lives = LIVES_MAX;
-            invincibleFramesLeft = 0;
-            isCountdownActive = true;
-            countdownFramesLeft = 4 * COUNTDOWN_FRAMES_PER_NUMBER;
-
-            gameThread = new Thread(this);
-            gameThread.start();
+        if (!runInProgress) {
+            synchronized (state) {
+                state.setAdaptiveDifficulty(isAdaptiveDifficultyEnabled());
+                state.reset(System.nanoTime(), 90, highScore);
+            }
+            startGhost();
+            startAutopilot();
+            startAchievements();
+            startRewind();
+            runInProgress = true;
+            startGameThread();
         }
     }
 
-    private void resetGame() {
-        obstacles.clear();
-        score = 0;
-        velocityY = 0;
-        obstacleSpeed = 10f;
-        spawnDelay = 120;
-        lastDifficultyScore = 0;
-        isGameOver = false;
-        playerY = getHeight() / 2f;
-        gapHeight = playerBitmap.getHeight() * 3;
-        lives = LIVES_MAX;
-        invincibleFramesLeft = 0;
-        isCountdownActive = true;
-        countdownFramesLeft = 4 * COUNTDOWN_FRAMES_PER_NUMBER;
+    /** The only place the game thread is started; no-op while one is running. */
+    private void startGameThread() {
+        if (gameThread != null) return;
+        isPlaying = true;
+        gameThread = new Thread(this, "game");
+        gameThread.start();
     }
 
-
-    @Override
-    public void run() {
-        while (isPlaying) {
-            update();
-            postInvalidate();
-            try { Thread.sleep(20); } catch (InterruptedException ignored) {}
+    /** Stops the game thread and waits for it, so a detached view leaves no thread behind. */
+    private void stopGameThread() {
+        Thread t = gameThread;
+        if (t == null) return;
+        gameThread = null;
+        isPlaying = false;
+        t.interrupt();
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    private void update() {
-        if (isGameOver || isPaused) return;
-
-        // Get Ready countdown: no physics or spawn until done
-        if (isCountdownActive) {
-            countdownFramesLeft--;
-            if (countdownFramesLeft <= 0) isCountdownActive = false;
-            return;
+    private void resetGame() {
+        synchronized (state) {
+            state.setAdaptiveDifficulty(isAdaptiveDifficultyEnabled());
+            state.reset(System.nanoTime(), 120, highScore);
         }
+        startGhost();
+        startAutopilot();
+        startAchievements();
+        startRewind();
+    }
 
-        // Difficulty scaling: every DIFFICULTY_INTERVAL points, game gets harder
-        if (score >= lastDifficultyScore + DIFFICULTY_INTERVAL) {
-            obstacleSpeed += 0.3f;
-            gapHeight = Math.max(200, gapHeight - 10);
-            spawnDelay = Math.max(50, spawnDelay - 2);
-            lastDifficultyScore = score;
-        }
+    /** True once a run has been started (or restored); the menu should stay hidden. */
+    public boolean isRunInProgress() {
+        return runInProgress;
+    }
 
-        // Invincibility after hit (so one pipe doesn't take multiple lives)
-        if (invincibleFramesLeft > 0) invincibleFramesLeft--;
+    /** Starts recording this run and rewinds the best run's ghost (if enabled and stored). */
+    private void startGhost() {
+        boolean enabled = gamePrefs != null && gamePrefs.isGhostEnabled();
+        ghostRecorder.startRecording(getHeight());
+        ghostPlayback.load(enabled ? bestGhostData : null, getHeight());
+        ghostY = Float.NaN;
+    }
 
-        // Physics
-        velocityY += gravity;
-        playerY += velocityY;
+    private boolean isAdaptiveDifficultyEnabled() {
+        return gamePrefs != null && gamePrefs.isAdaptiveDifficultyEnabled();
+    }
 
-        // Ceiling: bird cannot go above top of screen (so it can't fly over obstacles)
-        float minY = playerBitmap.getHeight() / 2f;
-        if (playerY < minY) {
-            playerY = minY;
-            velocityY = Math.max(0, velocityY);
+    private void startAutopilot() {
+        synchronized (state) {
+            autopilotRun = gamePrefs != null && gamePrefs.isAutopilotEnabled();
+            autopilot.reset();
         }
+    }
 
-        if (playerY > getHeight() - playerBitmap.getHeight() / 2f) {
-            onGameOver();  // floor death — play hit sound in onGameOver
+    /** Feeds this run's events to the achievements engine; autopilot runs don't count. */
+    private void startAchievements() {
+        Set<String> saved = gamePrefs != null ? gamePrefs.getUnlockedAchievements() : Collections.emptySet();
+        synchronized (state) {
+            eventQueue.clear();
+            achievements.setUnlocked(saved);
+            state.eventQueue = autopilotRun ? null : eventQueue;
+            achievements.dispatch(GameEventQueue.RUN_START, 0);
+            // A run restored after process death may already have lost a life
+            if (state.lives < GameState.LIVES_MAX) achievements.dispatch(GameEventQueue.HIT, state.lives);
         }
+    }
 
-        // Spawn pipes (softer start: first SOFTER_START_PIPES have wider gap + slower; then chance of moving gap)
-        spawnTimer++;
-        if (spawnTimer > spawnDelay) {
-            boolean softer = score < SOFTER_START_PIPES;
-            float gapH = softer ? gapHeight * 1.3f : gapHeight;
-            boolean moving = !softer && random.nextFloat() < MOVING_GAP_CHANCE;
-            float minTop = 200;
-            float maxTop = getHeight() - gapH - 200;
-            if (maxTop <= minTop) maxTop = minTop + 100;
-            float gapTop = minTop + random.nextFloat() * (maxTop - minTop);
-            obstacles.add(new ObstaclePair(getWidth(), gapTop, gapH, moving, softer));
-            spawnTimer = 0;
+    private void startRewind() {
+        synchronized (state) {
+            rewindRun = gamePrefs != null && gamePrefs.isRewindEnabled();
+            rewindBuffer.clear();
+            rewinding = false;
         }
+    }
 
-        // Update pipes
-        Iterator<ObstaclePair> it = obstacles.iterator();
-        while (it.hasNext()) {
-            ObstaclePair o = it.next();
-            o.update();
 
-            if (o.topRect.right < 0) {
-                it.remove();
-                continue;
+    @Override
+    public void run() {
+        long tickTime = SystemClock.uptimeMillis();
+        while (isPlaying) {
+            update(tickTime);
+            postInvalidate();
+            tickTime += TICK_MS;
+            long now = SystemClock.uptimeMillis();
+            if (now - tickTime > TICK_MS * MAX_CATCHUP_TICKS) tickTime = now;
+            long sleep = tickTime - now;
+            if (sleep > 0) {
+                try { Thread.sleep(sleep); } catch (InterruptedException ignored) {}
             }
+        }
+    }
 
-            // Score
-            if (!o.passed && o.topRect.right < playerX) {
-                o.passed = true;
-                score++;
-                soundPool.play(scoreSound, 1, 1, 1, 0, 1);
-                // Update high score only when we beat the record (not when we tie)
-                if (score > highScore) {
-                    // Play win sound only once per run: when we first beat the record we started with (e.g. 10 → 11)
-                    if (initialHighScore > 0 && score == initialHighScore + 1) {
-                        soundPool.play(winSound, 1, 1, 1, 0, 1);
-                    }
-                    highScore = score;
-                    if (db != null) {
-                        new Thread(() -> {
-                            HighScore hs = new HighScore();
-                            hs.score = highScore;
-                            db.scoreDao().saveHighScore(hs);
-                            if (gamePrefs != null) gamePrefs.updateUnlocksForHighScore(highScore);
-                        }).start();
-                    }
-                }
+    /** One simulation step; tickTime is the uptime this step stands for. */
+    private void update(long tickTime) {
+        if (isPaused) {
+            tapQueue.clear();  // taps on the paused screen never turn into flaps
+            return;
+        }
+        int events;
+        synchronized (state) {
+            if (rewinding) {
+                tapQueue.clear();
+                stepRewind();
+                return;
+            }
+            if (state.gameOver || state.countdownActive) tapQueue.clear();
+            boolean wasRunning = !state.gameOver && !state.countdownActive;
+
+            // Input: every tap that happened up to this tick becomes one flap
+            long tapTime = tapQueue.pollUntil(tickTime);
+            boolean flap;
+            if (tapTime >= 0) {
+                flap = true;
+                if (autopilotRun) autopilot.reset();  // the player took over this tick; its plan is stale
+            } else {
+                flap = autopilotRun && autopilot.decide(state);
+            }
+            if (rewindRun && wasRunning) rewindBuffer.push(state);
+            events = state.tick(flap);
+            int settledTick = rewindRun && !state.gameOver ? state.runTicks - REWIND_TICKS : Integer.MAX_VALUE;
+            achievements.drain(eventQueue, settledTick);
+            if ((events & GameState.EVENT_FLAP) != 0) pendingFlapEventTime = tapTime;
+
+            // Ghost: record this tick, advance the best run's ghost
+            if (wasRunning) {
+                ghostRecorder.record(state.playerY);
+                ghostY = ghostPlayback.hasNext() ? ghostPlayback.next() : Float.NaN;
             }
 
-            // Collision (skip while invincible after a hit)
-            if (invincibleFramesLeft > 0) continue;
+            if (rewindRun && (events & GameState.EVENT_HIT) != 0 && !state.gameOver) {
+                livesAfterHit = state.lives;
+                rewoundTicks = 0;
+                rewinding = true;
+                ghostY = Float.NaN;
+            }
+        }
 
-            float padding = 10; // 10px buffer to make collisions forgiving
-            RectF playerRect = new RectF(
-                    playerX - playerBitmap.getWidth() / 2f + padding,
-                    playerY - playerBitmap.getHeight() / 2f + padding,
-                    playerX + playerBitmap.getWidth() / 2f - padding,
-                    playerY + playerBitmap.getHeight() / 2f - padding
-            );
+        if ((events & GameState.EVENT_FLAP) != 0) soundPool.play(jumpSound, 1, 1, 1, 0, 1);
+        if ((events & GameState.EVENT_SCORED) != 0) onScored(state.score);
+        if ((events & GameState.EVENT_HIT) != 0) soundPool.play(hitSound, 1, 1, 1, 0, 1);
+        if ((events & GameState.EVENT_GAME_OVER) != 0) {
+            onGameOver((events & GameState.EVENT_HIT) != 0);  // obstacle death already played hit sound
+        }
+    }
 
-            if (RectF.intersects(playerRect, o.topRect) ||
-                    RectF.intersects(playerRect, o.bottomRect)) {
-                lives--;
-                soundPool.play(hitSound, 1, 1, 1, 0, 1);
-                it.remove();  // remove this obstacle so we don't lose multiple lives from one pipe
-                invincibleFramesLeft = INVINCIBLE_FRAMES_AFTER_HIT;
-                if (lives <= 0) {
-                    onGameOver(true);  // already played hit sound above
-                }
-                break;  // only one hit per frame
-            }
+    /** One rewind frame: steps REWIND_STEP snapshots back; at the end, resumes from there. */
+    private void stepRewind() {
+        for (int i = 0; i < REWIND_STEP && rewoundTicks < REWIND_TICKS; i++) {
+            if (!rewindBuffer.pop(state)) break;
+            rewoundTicks++;
         }
+        state.lives = livesAfterHit;  // the hit still costs a life, also on the HUD while rewinding
+        if (rewoundTicks < REWIND_TICKS && rewindBuffer.size() > 0) return;
+
+        state.invincibleFramesLeft = 0;
+        state.countdownActive = true;
+        state.countdownFramesLeft = 2 * GameState.COUNTDOWN_FRAMES_PER_NUMBER;  // "1", "Go!"
+        ghostRecorder.truncateRecording(ghostRecorder.getRecordedTicks() - rewoundTicks);
+        ghostPlayback.skipTo(ghostRecorder.getRecordedTicks());  // one recorded tick per running tick
+        eventQueue.dropAfter(state.runTicks);  // the rewound ticks' flaps and pipes never happened...
+        achievements.drain(eventQueue);
+        achievements.dispatch(GameEventQueue.HIT, livesAfterHit);  // ...but the hit still counts
+        autopilot.reset();
+        rewinding = false;
     }
 
-    private void onGameOver() {
-        onGameOver(false);
+    private void onScored(int score) {
+        soundPool.play(scoreSound, 1, 1, 1, 0, 1);
+        // Update high score only when we beat the record (not when we tie)
+        if (score > highScore && !autopilotRun) {
+            // Play win sound only once per run: when we first beat the record we started with (e.g. 10 → 11)
+            int initialHighScore = state.initialHighScore;
+            if (initialHighScore > 0 && highScore <= initialHighScore) {
+                soundPool.play(winSound, 1, 1, 1, 0, 1);
+            }
+            highScore = score;
+            if (db != null) {
+                new Thread(() -> {
+                    // Keep the stored ghost; it is replaced at game over
+                    if (db.scoreDao().updateHighScore(highScore) == 0) {
+                        HighScore hs = new HighScore();
+                        hs.score = highScore;
+                        db.scoreDao().saveHighScore(hs);
+                    }
+                    if (gamePrefs != null) gamePrefs.updateUnlocksForHighScore(highScore);
+                }).start();
+            }
+        }
     }
 
     private void onGameOver(boolean fromObstacle) {
-        if (isGameOver) return;
-        isGameOver = true;
         if (!fromObstacle) soundPool.play(hitSound, 1, 1, 1, 0, 1);  // floor death; obstacle death already played
         // High score is already updated in real time when passing obstacles
+        int score = state.score;
+        if (!autopilotRun && score > state.initialHighScore && score >= highScore) saveBestGhost(score);
+        if (!autopilotRun) saveRunStats(score, state.jumps);
+        List<Achievements.Rule> unlocked;
+        synchronized (state) {
+            unlocked = achievements.takeNewlyUnlocked();
+        }
+        if (!unlocked.isEmpty()) saveAchievements(unlocked);
+    }
+
+    /** Saves a run's unlocks in one prefs write (background thread) and announces them. */
+    private void saveAchievements(List<Achievements.Rule> unlocked) {
+        List<String> ids = new ArrayList<>(unlocked.size());
+        StringBuilder titles = new StringBuilder();
+        for (Achievements.Rule r : unlocked) {
+            ids.add(r.id);
+            if (titles.length() > 0) titles.append(", ");
+            titles.append(getContext().getString(r.titleRes));
+        }
+        if (gamePrefs != null) new Thread(() -> gamePrefs.addUnlockedAchievements(ids)).start();
+        String text = getContext().getString(R.string.achievement_unlocked, titles);
+        post(() -> Toast.makeText(getContext(), text, Toast.LENGTH_SHORT).show());
+    }
+
+    /** Adds this run to today's and the lifetime stats rollups. */
+    private void saveRunStats(int score, int jumps) {
+        if (db == null) return;
+        int day = StatsRollup.dayOf(System.currentTimeMillis());
+        new Thread(() -> db.statsDao().addRun(day, score, jumps)).start();
+    }
+
+    /** This run set the record: its recording becomes the ghost to race next time. */
+    private void saveBestGhost(int best) {
+        final byte[] ghost = ghostRecorder.toBytes();
+        bestGhostData = ghost;
+        if (db == null) return;
+        new Thread(() -> {
+            if (db.scoreDao().updateGhost(ghost) == 0) {
+                HighScore hs = new HighScore();
+                hs.score = best;
+                hs.ghost = ghost;
+                db.scoreDao().saveHighScore(hs);
+            }
+        }).start();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
+        long flapTime = pendingFlapEventTime;
+        if (flapTime >= 0 && drawnFlapEventTime < 0) {
+            // This frame shows the flap; it is presented at the next vsync, whose frame time
+            // (same monotonic clock as the event time) ends the measurement.
+            pendingFlapEventTime = -1;
+            drawnFlapEventTime = flapTime;
+            Choreographer.getInstance().postFrameCallback(flapPresented);
+        }
+
         int bgIndex = gamePrefs != null ? gamePrefs.getSelectedBackground() : 0;
-        if (bgIndex < 0 || bgIndex >= BACKGROUND_COLOR_IDS.length) bgIndex = 0;
-        canvas.drawColor(getResources().getColor(BACKGROUND_COLOR_IDS[bgIndex], null));
+        canvas.drawColor(backgroundColors[bgIndex >= 0 && bgIndex < backgroundColors.length ? bgIndex : 0]);
 
-        if (playerX == 0) {
-            playerX = getWidth() / 4f;
-            playerY = getHeight() / 2f;
-        }
+        GameState s = state;
+        float playerX = s.playerX;
+        float playerY = s.playerY;
+        int score = s.score;
 
         // Pipes
-        int pipeColor = getResources().getColor(R.color.pipe_color, null);
-        int pipeBorder = getResources().getColor(R.color.pipe_border, null);
         paint.setColor(pipeColor);
-        for (ObstaclePair o : obstacles) {
-            canvas.drawRect(o.topRect, paint);
-            canvas.drawRect(o.bottomRect, paint);
+        int obstacleCount = Math.min(s.obstacleCount, GameState.MAX_OBSTACLES);
+        for (int i = 0; i < obstacleCount; i++) {
+            float left = s.obstX[i];
+            float right = left + s.obstWidth[i];
+            float gapTop = s.gapTop(i);
+            float gapBottom = s.gapBottom(i);
+            canvas.drawRect(left, 0, right, gapTop, paint);
+            canvas.drawRect(left, gapBottom, right, getHeight(), paint);
             paint.setColor(pipeBorder);
             paint.setStyle(Paint.Style.STROKE);
             paint.setStrokeWidth(4f);
-            canvas.drawRect(o.topRect, paint);
-            canvas.drawRect(o.bottomRect, paint);
+            canvas.drawRect(left, 0, right, gapTop, paint);
+            canvas.drawRect(left, gapBottom, right, getHeight(), paint);
             paint.setStyle(Paint.Style.FILL);
             paint.setColor(pipeColor);
         }
 
+        // Ghost of the best run (translucent, untinted)
+        float ghost = ghostY;
+        if (!Float.isNaN(ghost)) {
+            paint.setAlpha(GHOST_ALPHA);
+            canvas.drawBitmap(
+                    playerBitmap,
+                    playerX - playerBitmap.getWidth() / 2f,
+                    ghost - playerBitmap.getHeight() / 2f,
+                    paint
+            );
+            paint.setAlpha(255);
+        }
+
         // Player (with selected bird tint)
         int birdIndex = gamePrefs != null ? gamePrefs.getSelectedBird() : 0;
-        if (birdIndex > 0 && birdIndex < BIRD_TINT_COLORS.length) {
-            paint.setColorFilter(new PorterDuffColorFilter(BIRD_TINT_COLORS[birdIndex], PorterDuff.Mode.MULTIPLY));
+        int tint = Cosmetics.bird(birdIndex).tint;
+        if (tint != 0) {
+            if (birdFilter == null || birdFilterTint != tint) {
+                birdFilter = new PorterDuffColorFilter(tint, PorterDuff.Mode.MULTIPLY);
+                birdFilterTint = tint;
+            }
+            paint.setColorFilter(birdFilter);
         }
         canvas.drawBitmap(
                 playerBitmap,
@@ -427,11 +562,13 @@ public class GameView extends View implements Runnable {
         );
         paint.setColorFilter(null);
 
+        if (rewinding) canvas.drawColor(REWIND_TINT);
+
         // Get Ready countdown overlay (3, 2, 1, Go!)
-        if (isCountdownActive && countdownFramesLeft > 0) {
-            int phase = (countdownFramesLeft - 1) / COUNTDOWN_FRAMES_PER_NUMBER;
-            String[] labels = { "Go!", "1", "2", "3" };
-            String msg = phase < labels.length ? labels[phase] : "3";
+        int countdownFramesLeft = s.countdownFramesLeft;
+        if (s.countdownActive && countdownFramesLeft > 0) {
+            int phase = (countdownFramesLeft - 1) / GameState.COUNTDOWN_FRAMES_PER_NUMBER;
+            String msg = phase < COUNTDOWN_LABELS.length ? COUNTDOWN_LABELS[phase] : "3";
             paint.setColor(Color.WHITE);
             paint.setTextAlign(Paint.Align.CENTER);
             paint.setTextSize(96);
@@ -446,21 +583,16 @@ public class GameView extends View implements Runnable {
         float hudLeft = 24;
         paint.setTextSize(44);
         paint.setColor(Color.WHITE);
-        String scoreStr = "Score: " + score;
-        String highStr = "Best: " + highScore;
-        String livesStr = "Lives: " + lives;
-        Rect scoreBounds = new Rect();
-        Rect highBounds = new Rect();
-        Rect livesBounds = new Rect();
+        updateHudText(score, highScore, s.lives);
         paint.getTextBounds(scoreStr, 0, scoreStr.length(), scoreBounds);
         paint.getTextBounds(highStr, 0, highStr.length(), highBounds);
         paint.getTextBounds(livesStr, 0, livesStr.length(), livesBounds);
         float pad = 16f;
         float lineH = scoreBounds.height() + 8;
-        float medalSize = 36f;
+        float medalSize = MEDAL_HUD_PX;
         float boxRight = hudLeft + Math.max(scoreBounds.width(), Math.max(highBounds.width() + medalSize + 8, livesBounds.width())) + pad * 2;
         float boxBottom = hudTop + lineH * 3 + pad * 2;
-        paint.setColor(getResources().getColor(R.color.hud_bg, null));
+        paint.setColor(hudBgColor);
         canvas.drawRoundRect(hudLeft, hudTop, boxRight, boxBottom, 12, 12, paint);
         paint.setColor(Color.WHITE);
         canvas.drawText(scoreStr, hudLeft + pad, hudTop + pad + scoreBounds.height(), paint);
@@ -469,20 +601,19 @@ public class GameView extends View implements Runnable {
         // Medal next to Best when current score earns one
         int medalId = getMedalDrawableId(score);
         if (medalId != 0) {
-            Drawable medal = ContextCompat.getDrawable(getContext(), medalId);
+            Bitmap medal = medalBitmap(score, medalHudBitmaps, MEDAL_HUD_PX);
             if (medal != null) {
                 float mx = hudLeft + pad + highBounds.width() + 8;
                 float my = hudTop + pad + scoreBounds.height() + lineH - medalSize;
-                medal.setBounds((int) mx, (int) my, (int) (mx + medalSize), (int) (my + medalSize));
-                medal.draw(canvas);
+                canvas.drawBitmap(medal, (int) mx, (int) my, null);
             }
         }
         paint.setColorFilter(null);
 
-        if (isGameOver) {
+        if (s.gameOver) {
             float cx = getWidth() / 2f;
             float cy = getHeight() / 2f;
-            paint.setColor(getResources().getColor(R.color.game_over_overlay, null));
+            paint.setColor(gameOverOverlayColor);
             canvas.drawRect(0, 0, getWidth(), getHeight(), paint);
             paint.setColor(Color.WHITE);
             paint.setTextAlign(Paint.Align.CENTER);
@@ -491,52 +622,90 @@ public class GameView extends View implements Runnable {
             paint.setTextSize(36);
             canvas.drawText("Tap to Restart", cx, cy + 50, paint);
             // "Change background" button
-            String changeBgText = getContext().getString(R.string.change_background);
+            String changeBgText = changeBackgroundText;
             paint.setTextSize(32);
-            Rect changeBgBounds = new Rect();
             paint.getTextBounds(changeBgText, 0, changeBgText.length(), changeBgBounds);
             float changeBgY = getHeight() - 80f;
             canvas.drawText(changeBgText, cx, changeBgY, paint);
             float padz = 40f;
             changeBackgroundBounds.set(cx - changeBgBounds.width() / 2f - padz, changeBgY - changeBgBounds.height() - 8,
                     cx + changeBgBounds.width() / 2f + padz, changeBgY + 8);
-            if (score > initialHighScore) {
+            if (score > s.initialHighScore) {
                 paint.setTextSize(32);
                 paint.setColor(0xFFFFFF00);
                 canvas.drawText("New record!", cx, cy + 100, paint);
             }
             // Medal / prize for best records
             if (medalId != 0) {
-                String medalName = getMedalName(score);
-                Drawable medal = ContextCompat.getDrawable(getContext(), medalId);
+                Bitmap medal = medalBitmap(score, medalGameOverBitmaps, MEDAL_GAME_OVER_PX);
                 if (medal != null) {
-                    float mSize = 64f;
-                    float my = cy + 140;
-                    medal.setBounds((int) (cx - mSize / 2), (int) my, (int) (cx + mSize / 2), (int) (my + mSize));
-                    medal.draw(canvas);
+                    canvas.drawBitmap(medal, (int) (cx - MEDAL_GAME_OVER_PX / 2f), (int) (cy + 140), null);
                 }
-                if (medalName != null) {
+                String medalLabel = medalLabel(score);
+                if (medalLabel != null) {
                     paint.setTextSize(28);
                     paint.setColor(Color.WHITE);
-                    canvas.drawText(medalName + " medal!", cx, cy + 220, paint);
+                    canvas.drawText(medalLabel, cx, cy + 220, paint);
                 }
             }
             paint.setTextAlign(Paint.Align.LEFT);
         }
     }
 
+    private void updateHudText(int score, int high, int lives) {
+        if (score != hudScore) {
+            hudScore = score;
+            scoreStr = "Score: " + score;
+        }
+        if (high != hudHigh) {
+            hudHigh = high;
+            highStr = "Best: " + high;
+        }
+        if (lives != hudLives) {
+            hudLives = lives;
+            livesStr = "Lives: " + lives;
+        }
+    }
+
+    /** Medal for this score as a size x size bitmap (rasterized once per tier into cache), or null. */
+    private Bitmap medalBitmap(int score, Bitmap[] cache, int size) {
+        int tier = Medals.tier(score);
+        if (tier == Medals.NONE) return null;
+        if (cache[tier] == null) {
+            Drawable d = ContextCompat.getDrawable(getContext(), MEDAL_DRAWABLE_IDS[tier]);
+            if (d == null) return null;
+            Bitmap b = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            d.setBounds(0, 0, size, size);
+            d.draw(new Canvas(b));
+            cache[tier] = b;
+        }
+        return cache[tier];
+    }
+
+    /** "Gold medal!" etc. for this score (built once per tier), or null. */
+    private String medalLabel(int score) {
+        int tier = Medals.tier(score);
+        if (tier == Medals.NONE) return null;
+        if (medalLabels[tier] == null) medalLabels[tier] = MEDAL_NAMES[tier] + " medal!";
+        return medalLabels[tier];
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
-            if (isGameOver) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_POINTER_DOWN) {
+            // Extra finger while another is held: still a flap (multi-touch)
+            if (!state.gameOver && !state.countdownActive) tapQueue.push(event.getEventTime());
+        } else if (action == MotionEvent.ACTION_DOWN) {
+            if (state.gameOver) {
                 if (changeBackgroundBounds.contains(event.getX(), event.getY())) {
                     getContext().startActivity(new Intent(getContext(), BirdsActivity.class));
                 } else {
                     resetGame();
                 }
-            } else if (!isCountdownActive) {
-                velocityY = jumpForce;
-                soundPool.play(jumpSound, 1, 1, 1, 0, 1);
+            } else if (!state.countdownActive) {
+                // Applied by the game thread at the tick matching the touch time (see update)
+                tapQueue.push(event.getEventTime());
             }
         }
         return true;
@@ -545,6 +714,7 @@ public class GameView extends View implements Runnable {
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        stopGameThread();  // e.g. rotation: the new view restores the run and starts its own
         soundPool.release();
     }
 
@@ -560,6 +730,93 @@ public class GameView extends View implements Runnable {
         return isPaused;
     }
 
+    /**
+     * Saves a run in progress as one compact GameState blob (plus this run's ghost recording and
+     * its tick count) so it survives process death. The best ghost stays out of the Bundle; it
+     * is already in the DB. Restored runs come back paused.
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        Bundle out = new Bundle();
+        out.putParcelable(STATE_SUPER, super.onSaveInstanceState());
+        if (isRunInProgress()) {
+            ByteBuffer buf = ByteBuffer.allocate(GameState.SNAPSHOT_MAX_BYTES);
+            synchronized (state) {
+                state.writeTo(buf);
+                out.putByteArray(STATE_GHOST_RECORDING, ghostRecorder.toBytes());
+                out.putInt(STATE_GHOST_RECORDED_TICKS, ghostRecorder.getRecordedTicks());
+            }
+            byte[] run = new byte[buf.position()];
+            buf.flip();
+            buf.get(run);
+            out.putByteArray(STATE_RUN, run);
+        }
+        return out;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable saved) {
+        if (!(saved instanceof Bundle)) {
+            super.onRestoreInstanceState(saved);
+            return;
+        }
+        Bundle in = (Bundle) saved;
+        super.onRestoreInstanceState(in.getParcelable(STATE_SUPER));
+        byte[] run = in.getByteArray(STATE_RUN);
+        if (run == null || isRunInProgress()) return;
+        synchronized (state) {
+            if (!state.readFrom(ByteBuffer.wrap(run))) return;  // older format: start from the menu
+            ghostRecorder.restoreRecording(in.getByteArray(STATE_GHOST_RECORDING), in.getInt(STATE_GHOST_RECORDED_TICKS));
+            ghostY = Float.NaN;
+        }
+        restoreBestGhost();
+        startAutopilot();
+        startAchievements();
+        startRewind();
+        isPaused = true;
+        runInProgress = true;
+        startGameThread();
+    }
+
+    /**
+     * A restored run races the best run's ghost again. It is reloaded from the DB rather than
+     * kept in the saved state, and resumes at the restored run's tick.
+     */
+    private void restoreBestGhost() {
+        if (db == null) db = AppDatabase.getInstance(getContext());
+        if (gamePrefs == null) gamePrefs = new GamePrefs(getContext());
+        boolean enabled = gamePrefs.isGhostEnabled();
+        new Thread(() -> {
+            byte[] ghost = enabled ? db.scoreDao().getGhost() : null;
+            synchronized (state) {
+                ghostPlayback.load(ghost, state.height);
+                ghostPlayback.skipTo(ghostRecorder.getRecordedTicks());  // one recorded tick per running tick
+            }
+        }).start();
+    }
+
+    /**
+     * Tap-to-flap latency: from the touch event time to the vsync that presents the first frame
+     * drawn after the tick that applied it (the next Choreographer frame time after that onDraw).
+     * Logged every LATENCY_LOG_EVERY taps; read on the UI thread.
+     */
+    public LatencyStats getFlapLatencyStats() {
+        return flapLatency;
+    }
+
+    private void recordFlapLatency(long ms) {
+        flapLatency.add(ms);
+        if (flapLatency.getCount() % LATENCY_LOG_EVERY == 0) {
+            Log.d(TAG, "tap-to-flap latency " + flapLatency);
+        }
+    }
+
+    /** Run state, for tests that script a frame. */
+    @VisibleForTesting
+    GameState getState() {
+        return state;
+    }
+
     /** Current high score (for menu display). May be 0 until DB load completes. */
     public int getHighScore() {
         return highScore;
@@ -567,20 +824,14 @@ public class GameView extends View implements Runnable {
 
     /** Returns drawable id for medal at this score, or 0 if no medal. */
     public static int getMedalDrawableId(int score) {
-        if (score >= MEDAL_PLATINUM) return R.drawable.medal_platinum;
-        if (score >= MEDAL_GOLD) return R.drawable.medal_gold;
-        if (score >= MEDAL_SILVER) return R.drawable.medal_silver;
-        if (score >= MEDAL_BRONZE) return R.drawable.medal_bronze;
-        return 0;
+        int tier = Medals.tier(score);
+        return tier == Medals.NONE ? 0 : MEDAL_DRAWABLE_IDS[tier];
     }
 
     /** Returns medal tier name for score, or null. */
     public static String getMedalName(int score) {
-        if (score >= MEDAL_PLATINUM) return "Platinum";
-        if (score >= MEDAL_GOLD) return "Gold";
-        if (score >= MEDAL_SILVER) return "Silver";
-        if (score >= MEDAL_BRONZE) return "Bronze";
-        return null;
+        int tier = Medals.tier(score);
+        return tier == Medals.NONE ? null : MEDAL_NAMES[tier];
     }
 
 }
@@ -0,0 +1,255 @@
+package com.example.endlessfun;
+
+/**
+ * Best-run ghost: the bird's y position once per tick, stored as zigzag varint deltas.
+ * Typical deltas fit in one byte, so a 5 minute run (15 000 ticks) is about 15 KB.
+ *
+ * Format: version byte, varint screen height, varint tick count, then one varint delta per tick.
+ * Recording and playback only touch preallocated primitive buffers. The record buffer is fixed
+ * at RECORD_BYTES so the game thread never grows it; a longer run keeps counting ticks but its
+ * ghost ends where the buffer filled up.
+ */
+public final class GhostTrack {
+
+    private static final int VERSION = 1;
+    /** Recording capacity: 40+ minutes of typical play, well inside a saved-state Bundle. */
+    static final int RECORD_BYTES = 128 * 1024;
+    private static final int MAX_VARINT_BYTES = 5;
+
+    // Recording
+    private final byte[] recBuf = new byte[RECORD_BYTES];
+    private int recLen;
+    private int recTicks;   // ticks of the run so far
+    private int recStored;  // ticks in recBuf (less than recTicks once it is full)
+    private int recLastY;
+    private int recHeight;
+
+    // Playback
+    private byte[] playBuf;
+    private int playBodyStart;
+    private int playPos;
+    private int playTicks;
+    private int playIndex;
+    private int playLastY;
+    private float playScale = 1f;
+    private int playRecordedHeight;
+
+    public void startRecording(int screenHeight) {
+        recLen = 0;
+        recTicks = 0;
+        recStored = 0;
+        recLastY = 0;
+        recHeight = screenHeight;
+    }
+
+    /** Called once per tick from the game thread. No allocation. */
+    public void record(float y) {
+        recTicks++;
+        if (recStored < recTicks - 1 || recLen + MAX_VARINT_BYTES > recBuf.length) return;  // full
+        int q = Math.round(y);
+        int delta = q - recLastY;
+        recLastY = q;
+        recLen = writeVarint(recBuf, recLen, zigzag(delta));
+        recStored++;
+    }
+
+    /** Ticks recorded this run (one per running tick, also once the buffer is full). */
+    public int getRecordedTicks() {
+        return recTicks;
+    }
+
+    /** Keeps only the first ticks ticks of the recording (the run was rewound). Steps back from the end. */
+    public void truncateRecording(int ticks) {
+        if (ticks >= recTicks) return;
+        ticks = Math.max(0, ticks);
+        recTicks = ticks;
+        while (recStored > ticks) {
+            int start = varintStart(recBuf, 0, recLen);
+            recLastY -= unzigzag(readVarintAt(recBuf, start));
+            recLen = start;
+            recStored--;
+        }
+    }
+
+    /**
+     * Continues a recording from toBytes() output (e.g. after process death). ticks is the run's
+     * getRecordedTicks() saved alongside it; it exceeds the stored ticks once the buffer had
+     * filled. Decodes straight into the record buffer. Ignored if malformed.
+     */
+    public void restoreRecording(byte[] data, int ticks) {
+        if (data == null || data.length == 0 || data[0] != VERSION) return;
+        int[] pos = { 1 };
+        int height = readVarint(data, pos);
+        int stored = readVarint(data, pos);
+        int bodyLen = data.length - pos[0];
+        if (height <= 0 || stored < 0 || bodyLen > recBuf.length || countVarints(data, pos[0]) != stored) return;
+        System.arraycopy(data, pos[0], recBuf, 0, bodyLen);
+        int y = 0;
+        int v = 0;
+        int shift = 0;
+        for (int p = 0; p < bodyLen; p++) {
+            v |= (recBuf[p] & 0x7F) << shift;
+            if ((recBuf[p] & 0x80) != 0) {
+                shift += 7;
+                continue;
+            }
+            y += unzigzag(v);
+            v = 0;
+            shift = 0;
+        }
+        recLen = bodyLen;
+        recStored = stored;
+        recTicks = Math.max(ticks, stored);
+        recLastY = y;
+        recHeight = height;
+    }
+
+    /** Encoded copy of the current recording (header + body), for persisting. */
+    public byte[] toBytes() {
+        byte[] header = new byte[11];
+        int h = 0;
+        header[h++] = (byte) VERSION;
+        h = writeVarint(header, h, recHeight);
+        h = writeVarint(header, h, recStored);
+        byte[] out = new byte[h + recLen];
+        System.arraycopy(header, 0, out, 0, h);
+        System.arraycopy(recBuf, 0, out, h, recLen);
+        return out;
+    }
+
+    /**
+     * Prepares playback of an encoded track, scaled to the current screen height.
+     * Returns false (and disables playback) if data is null, truncated or not a known version.
+     */
+    public boolean load(byte[] data, int screenHeight) {
+        playBuf = null;
+        playTicks = 0;
+        if (data == null || data.length == 0 || data[0] != VERSION) return false;
+        int[] pos = { 1 };
+        int recordedHeight = readVarint(data, pos);
+        int ticks = readVarint(data, pos);
+        if (recordedHeight <= 0 || ticks < 0 || countVarints(data, pos[0]) != ticks) return false;
+        playBuf = data;
+        playBodyStart = pos[0];
+        playTicks = ticks;
+        playRecordedHeight = recordedHeight;
+        playScale = screenHeight > 0 ? screenHeight / (float) recordedHeight : 1f;
+        rewindPlayback();
+        return true;
+    }
+
+    public void rewindPlayback() {
+        playPos = playBodyStart;
+        playIndex = 0;
+        playLastY = 0;
+    }
+
+    /**
+     * Moves playback to the given tick index, stepping forward or back from where it is (e.g.
+     * after a rewind); past the end of the track it stays at the end.
+     */
+    public void skipTo(int tick) {
+        if (playBuf == null) return;
+        tick = Math.max(0, Math.min(tick, playTicks));
+        while (playIndex < tick) next();
+        while (playIndex > tick) {
+            int start = varintStart(playBuf, playBodyStart, playPos);
+            playLastY -= unzigzag(readVarintAt(playBuf, start));
+            playPos = start;
+            playIndex--;
+        }
+    }
+
+    /** Encoded track being played, or null. */
+    public byte[] getPlaybackData() {
+        return playBuf;
+    }
+
+    public int getPlaybackIndex() {
+        return playIndex;
+    }
+
+    public boolean hasNext() {
+        return playBuf != null && playIndex < playTicks;
+    }
+
+    /** Next tick's ghost y in current screen pixels. Call only when hasNext(). */
+    public float next() {
+        byte[] b = playBuf;
+        int p = playPos;
+        int v = 0;
+        int shift = 0;
+        int x;
+        do {
+            x = b[p++];
+            v |= (x & 0x7F) << shift;
+            shift += 7;
+        } while ((x & 0x80) != 0);
+        playPos = p;
+        playIndex++;
+        playLastY += (v >>> 1) ^ -(v & 1);
+        return playLastY * playScale;
+    }
+
+    /** Number of complete varints from start to the end of b, or -1 if the last one is cut off. */
+    private static int countVarints(byte[] b, int start) {
+        int n = 0;
+        boolean open = false;
+        for (int p = start; p < b.length; p++) {
+            open = (b[p] & 0x80) != 0;
+            if (!open) n++;
+        }
+        return open ? -1 : n;
+    }
+
+    private static int zigzag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /** Start of the varint that ends just before end (its last byte is the only one without 0x80). */
+    private static int varintStart(byte[] b, int bodyStart, int end) {
+        int p = end - 1;
+        while (p > bodyStart && (b[p - 1] & 0x80) != 0) p--;
+        return p;
+    }
+
+    private static int readVarintAt(byte[] b, int p) {
+        int v = 0;
+        int shift = 0;
+        int x;
+        do {
+            x = b[p++];
+            v |= (x & 0x7F) << shift;
+            shift += 7;
+        } while ((x & 0x80) != 0);
+        return v;
+    }
+
+    private static int writeVarint(byte[] b, int p, int v) {
+        while ((v & ~0x7F) != 0) {
+            b[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        b[p++] = (byte) v;
+        return p;
+    }
+
+    private static int readVarint(byte[] b, int[] pos) {
+        int p = pos[0];
+        int v = 0;
+        int shift = 0;
+        int x;
+        do {
+            if (p >= b.length || shift > 28) return -1;
+            x = b[p++];
+            v |= (x & 0x7F) << shift;
+            shift += 7;
+        } while ((x & 0x80) != 0);
+        pos[0] = p;
+        return v;
+    }
+}
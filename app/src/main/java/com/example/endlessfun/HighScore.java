@@ -10,4 +10,7 @@ public class HighScore {
     public int id = 1;
 
     public int score;
+
+    /** Encoded GhostTrack of the run that set this score, or null. */
+    public byte[] ghost;
 }
@@ -0,0 +1,45 @@
+package com.example.endlessfun;
+
+/** Running tap-to-flap latency figures (millis). Constant memory; not thread-safe. */
+public final class LatencyStats {
+
+    private int count;
+    private long totalMs;
+    private long maxMs;
+    private long minMs = Long.MAX_VALUE;
+
+    public void add(long ms) {
+        count++;
+        totalMs += ms;
+        if (ms > maxMs) maxMs = ms;
+        if (ms < minMs) minMs = ms;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public float getAverageMs() {
+        return count == 0 ? 0f : totalMs / (float) count;
+    }
+
+    public long getMaxMs() {
+        return maxMs;
+    }
+
+    public long getMinMs() {
+        return count == 0 ? 0 : minMs;
+    }
+
+    public void reset() {
+        count = 0;
+        totalMs = 0;
+        maxMs = 0;
+        minMs = Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "n=" + count + " avg=" + getAverageMs() + "ms min=" + getMinMs() + "ms max=" + maxMs + "ms";
+    }
+}
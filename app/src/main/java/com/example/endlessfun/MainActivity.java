@@ -3,6 +3,7 @@ package com.example.endlessfun;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -33,9 +34,20 @@ public class MainActivity extends AppCompatActivity {
         bestMedalIcon = findViewById(R.id.bestMedalIcon);
         Button startButton = findViewById(R.id.startButton);
         Button birdsButton = findViewById(R.id.birdsButton);
+        CheckBox ghostCheckBox = findViewById(R.id.ghostCheckBox);
+        CheckBox autopilotCheckBox = findViewById(R.id.autopilotCheckBox);
+        CheckBox rewindCheckBox = findViewById(R.id.rewindCheckBox);
+        CheckBox adaptiveCheckBox = findViewById(R.id.adaptiveCheckBox);
 
-        // Load high score for menu display
-        loadBestScoreForMenu();
+        GamePrefs prefs = new GamePrefs(this);
+        ghostCheckBox.setChecked(prefs.isGhostEnabled());
+        ghostCheckBox.setOnCheckedChangeListener((b, checked) -> prefs.setGhostEnabled(checked));
+        autopilotCheckBox.setChecked(prefs.isAutopilotEnabled());
+        autopilotCheckBox.setOnCheckedChangeListener((b, checked) -> prefs.setAutopilotEnabled(checked));
+        rewindCheckBox.setChecked(prefs.isRewindEnabled());
+        rewindCheckBox.setOnCheckedChangeListener((b, checked) -> prefs.setRewindEnabled(checked));
+        adaptiveCheckBox.setChecked(prefs.isAdaptiveDifficultyEnabled());
+        adaptiveCheckBox.setOnCheckedChangeListener((b, checked) -> prefs.setAdaptiveDifficultyEnabled(checked));
 
         startButton.setOnClickListener(v -> {
             menuOverlay.setVisibility(View.GONE);
@@ -46,6 +58,8 @@ public class MainActivity extends AppCompatActivity {
         });
 
         birdsButton.setOnClickListener(v -> startActivity(new android.content.Intent(this, BirdsActivity.class)));
+        findViewById(R.id.trainingButton).setOnClickListener(v -> startActivity(new android.content.Intent(this, TrainingActivity.class)));
+        findViewById(R.id.statsButton).setOnClickListener(v -> startActivity(new android.content.Intent(this, StatsActivity.class)));
 
         pauseButton.setOnClickListener(v -> {
             if (gameView.isPaused()) {
@@ -53,13 +67,44 @@ public class MainActivity extends AppCompatActivity {
                 pauseButton.setImageResource(R.drawable.ic_pause);
                 pauseButton.setContentDescription(getString(R.string.pause));
             } else {
-                gameView.pauseGame();
-                pauseButton.setImageResource(R.drawable.ic_play);
-                pauseButton.setContentDescription(getString(R.string.resume));
+                pauseGame();
             }
         });
     }
 
+    @Override
+    protected void onRestoreInstanceState(Bundle savedInstanceState) {
+        super.onRestoreInstanceState(savedInstanceState);
+        // GameView restored a run killed with the process: show it paused instead of the menu
+        if (gameView.isRunInProgress()) {
+            menuOverlay.setVisibility(View.GONE);
+            pauseButton.setVisibility(View.VISIBLE);
+            pauseButton.setImageResource(R.drawable.ic_play);
+            pauseButton.setContentDescription(getString(R.string.resume));
+        }
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Load high score for menu display (again after Stats, which can import a profile)
+        loadBestScoreForMenu();
+        if (menuOverlay.getVisibility() == View.VISIBLE) gameView.reloadSavedData();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Leaving the app pauses the run, so what gets saved is a paused run
+        if (gameView.isRunInProgress() && !gameView.isPaused()) pauseGame();
+    }
+
+    private void pauseGame() {
+        gameView.pauseGame();
+        pauseButton.setImageResource(R.drawable.ic_play);
+        pauseButton.setContentDescription(getString(R.string.resume));
+    }
+
     private void loadBestScoreForMenu() {
         new Thread(() -> {
             AppDatabase db = AppDatabase.getInstance(this);
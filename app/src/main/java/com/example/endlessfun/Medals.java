@@ -0,0 +1,23 @@
+package com.example.endlessfun;
+
+/** Medal tiers by score: a run earns the highest tier whose threshold it reaches (score >= value). */
+public final class Medals {
+    public static final int NONE = -1;
+    public static final int BRONZE = 0;
+    public static final int SILVER = 1;
+    public static final int GOLD = 2;
+    public static final int PLATINUM = 3;
+
+    /** Threshold per tier, indexed by BRONZE..PLATINUM. */
+    public static final int[] THRESHOLDS = { 10, 25, 50, 100 };
+
+    /** BRONZE..PLATINUM for this score, or NONE. */
+    public static int tier(int score) {
+        for (int t = THRESHOLDS.length - 1; t >= 0; t--) {
+            if (score >= THRESHOLDS[t]) return t;
+        }
+        return NONE;
+    }
+
+    private Medals() {}
+}
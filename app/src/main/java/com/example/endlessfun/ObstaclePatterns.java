@@ -0,0 +1,278 @@
+package com.example.endlessfun;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Obstacle patterns (runs of one or more pipes) compiled from a small text format into flat
+ * primitive tables. GameState spawns from these: one table lookup per pipe, and one
+ * alias-method draw per pattern, chosen by the current score. Nothing is parsed or allocated
+ * during play.
+ *
+ * Format (see res/raw/obstacle_patterns.txt): one pattern per line, '#' starts a comment.
+ * <pre>
+ * name  minScore  maxScore|-  weight  step | step | ...
+ * step = position  gapScale  delayScale  flags
+ * </pre>
+ * position is where the gap sits in the allowed range: 0..1 absolute, +x / -x relative to the
+ * previous pipe's gap (clamped), or r for random. gapScale multiplies the current gap height;
+ * delayScale multiplies the current spawn delay before this pipe. flags: - none, m moving
+ * (random direction), u moving up, d moving down, s slow (softer start); combinable, e.g. ms.
+ * Every score from 0 up must be covered by at least one pattern. The next pattern is picked
+ * with the score at the time its first pipe can spawn.
+ */
+public final class ObstaclePatterns {
+
+    static final byte POS_ABSOLUTE = 0;
+    static final byte POS_RELATIVE = 1;
+    static final byte POS_RANDOM = 2;
+
+    static final byte FLAG_MOVING = 1;
+    static final byte FLAG_UP = 2;
+    static final byte FLAG_DOWN = 4;
+    static final byte FLAG_SLOW = 8;
+
+    static final int MAX_SCORE = 10_000;  // upper bound for minScore/maxScore (size of the band lookup)
+
+    /** The original spawn rule: 3 slow wide pipes, then single pipes, 35% of them moving. */
+    static final String BUILT_IN =
+            "warmup 0 2 1 r 1.3 1 s\n"
+            + "single 3 - 65 r 1 1 -\n"
+            + "moving 3 - 35 r 1 1 m\n";
+
+    static final ObstaclePatterns DEFAULT = parse(BUILT_IN);
+
+    // Patterns
+    final String[] names;
+    final int[] patternStart;   // first step index
+    final int[] patternLength;
+
+    // Steps, all patterns back to back
+    final byte[] stepPosMode;
+    final float[] stepPos;
+    final float[] stepGap;
+    final float[] stepDelay;
+    final byte[] stepFlags;
+    final float minFirstDelay;  // shortest first-step delayScale: when the next pattern is picked
+
+    // Weighted choice: score -> band; per band an alias table over its patterns
+    private final int[] bandOfScore;   // index = min(score, bandOfScore.length - 1)
+    private final int[] bandStart;     // offset into the alias arrays
+    private final int[] bandSize;
+    private final float[] aliasProb;
+    private final int[] aliasPattern;
+    private final int[] aliasOther;
+
+    private ObstaclePatterns(List<String> names, List<int[]> ranges, List<Integer> weights, List<float[]> steps) {
+        int n = names.size();
+        this.names = names.toArray(new String[0]);
+        patternStart = new int[n];
+        patternLength = new int[n];
+        int totalSteps = 0;
+        for (int p = 0; p < n; p++) {
+            patternStart[p] = totalSteps;
+            patternLength[p] = steps.get(p).length / 5;
+            totalSteps += patternLength[p];
+        }
+        stepPosMode = new byte[totalSteps];
+        stepPos = new float[totalSteps];
+        stepGap = new float[totalSteps];
+        stepDelay = new float[totalSteps];
+        stepFlags = new byte[totalSteps];
+        for (int p = 0; p < n; p++) {
+            float[] s = steps.get(p);
+            for (int k = 0; k < patternLength[p]; k++) {
+                int i = patternStart[p] + k;
+                stepPosMode[i] = (byte) s[k * 5];
+                stepPos[i] = s[k * 5 + 1];
+                stepGap[i] = s[k * 5 + 2];
+                stepDelay[i] = s[k * 5 + 3];
+                stepFlags[i] = (byte) s[k * 5 + 4];
+            }
+        }
+        float minFirst = Float.MAX_VALUE;
+        for (int p = 0; p < n; p++) minFirst = Math.min(minFirst, stepDelay[patternStart[p]]);
+        minFirstDelay = minFirst;
+
+        // Bands: score ranges where the set of eligible patterns doesn't change
+        TreeSet<Integer> cuts = new TreeSet<>();
+        cuts.add(0);
+        for (int[] r : ranges) {
+            cuts.add(r[0]);
+            if (r[1] < Integer.MAX_VALUE) cuts.add(r[1] + 1);
+        }
+        Integer[] starts = cuts.toArray(new Integer[0]);
+        int bands = starts.length;
+        bandOfScore = new int[starts[bands - 1] + 1];
+        bandStart = new int[bands];
+        bandSize = new int[bands];
+        List<Integer> members = new ArrayList<>();
+        List<Integer> memberWeights = new ArrayList<>();
+        int aliasLen = 0;
+        int[][] bandMembers = new int[bands][];
+        int[][] bandWeights = new int[bands][];
+        for (int b = 0; b < bands; b++) {
+            int from = starts[b];
+            int to = b + 1 < bands ? starts[b + 1] : Integer.MAX_VALUE;
+            for (int s = from; s < Math.min(to, bandOfScore.length); s++) bandOfScore[s] = b;
+            members.clear();
+            memberWeights.clear();
+            for (int p = 0; p < n; p++) {
+                if (ranges.get(p)[0] <= from && from <= ranges.get(p)[1]) {
+                    members.add(p);
+                    memberWeights.add(weights.get(p));
+                }
+            }
+            if (members.isEmpty()) {
+                throw new IllegalArgumentException("no pattern for score " + from
+                        + (to == Integer.MAX_VALUE ? " and up" : " to " + (to - 1)));
+            }
+            bandMembers[b] = toArray(members);
+            bandWeights[b] = toArray(memberWeights);
+            bandStart[b] = aliasLen;
+            bandSize[b] = members.size();
+            aliasLen += members.size();
+        }
+        aliasProb = new float[aliasLen];
+        aliasPattern = new int[aliasLen];
+        aliasOther = new int[aliasLen];
+        for (int b = 0; b < bands; b++) buildAlias(bandStart[b], bandMembers[b], bandWeights[b]);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] a = new int[list.size()];
+        for (int i = 0; i < a.length; i++) a[i] = list.get(i);
+        return a;
+    }
+
+    /** Vose's alias method: slot i keeps its own pattern with aliasProb[i], else aliasOther[i]. */
+    private void buildAlias(int off, int[] members, int[] weights) {
+        int k = members.length;
+        long total = 0;
+        for (int w : weights) total += w;
+        double[] scaled = new double[k];
+        int[] small = new int[k];
+        int[] large = new int[k];
+        int ns = 0, nl = 0;
+        for (int i = 0; i < k; i++) {
+            scaled[i] = weights[i] * (double) k / total;
+            aliasPattern[off + i] = members[i];
+            aliasOther[off + i] = members[i];
+            if (scaled[i] < 1) small[ns++] = i; else large[nl++] = i;
+        }
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns];
+            int l = large[--nl];
+            aliasProb[off + s] = (float) scaled[s];
+            aliasOther[off + s] = members[l];
+            scaled[l] -= 1 - scaled[s];
+            if (scaled[l] < 1) small[ns++] = l; else large[nl++] = l;
+        }
+        while (nl > 0) aliasProb[off + large[--nl]] = 1f;
+        while (ns > 0) aliasProb[off + small[--ns]] = 1f;  // rounding leftovers
+    }
+
+    public int size() {
+        return patternStart.length;
+    }
+
+    /** Pattern index for a score, from u uniform in [0, 1). O(1). */
+    int choose(int score, float u) {
+        int band = bandOfScore[Math.min(Math.max(score, 0), bandOfScore.length - 1)];
+        float x = u * bandSize[band];
+        int slot = Math.min((int) x, bandSize[band] - 1);
+        int i = bandStart[band] + slot;
+        return x - slot < aliasProb[i] ? aliasPattern[i] : aliasOther[i];
+    }
+
+    public static ObstaclePatterns read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+        return parse(new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /** Compiles the text format. Throws IllegalArgumentException naming the bad line. */
+    public static ObstaclePatterns parse(String text) {
+        List<String> names = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        List<float[]> steps = new ArrayList<>();
+        String[] lines = text.split("\n");
+        for (int ln = 0; ln < lines.length; ln++) {
+            String line = lines[ln];
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            try {
+                String[] parts = line.split("\\|");
+                String[] head = parts[0].trim().split("\\s+");
+                if (head.length != 8) throw new IllegalArgumentException("expected name, minScore, maxScore, weight and a step");
+                int min = parseScore(head[1]);
+                int max = head[2].equals("-") ? Integer.MAX_VALUE : parseScore(head[2]);
+                int weight = Integer.parseInt(head[3]);
+                if (max < min) throw new IllegalArgumentException("maxScore < minScore");
+                if (weight <= 0) throw new IllegalArgumentException("weight must be > 0");
+                float[] s = new float[parts.length * 5];
+                parseStep(head, 4, s, 0);
+                for (int k = 1; k < parts.length; k++) {
+                    String[] step = parts[k].trim().split("\\s+");
+                    if (step.length != 4) throw new IllegalArgumentException("step " + (k + 1) + ": expected 4 fields");
+                    parseStep(step, 0, s, k * 5);
+                }
+                names.add(head[0]);
+                ranges.add(new int[] { min, max });
+                weights.add(weight);
+                steps.add(s);
+            } catch (IllegalArgumentException e) {  // includes NumberFormatException
+                throw new IllegalArgumentException("obstacle patterns line " + (ln + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if (names.isEmpty()) throw new IllegalArgumentException("no obstacle patterns");
+        return new ObstaclePatterns(names, ranges, weights, steps);
+    }
+
+    private static int parseScore(String s) {
+        int v = Integer.parseInt(s);
+        if (v < 0 || v > MAX_SCORE) throw new IllegalArgumentException("score out of range 0.." + MAX_SCORE + ": " + s);
+        return v;
+    }
+
+    private static void parseStep(String[] f, int at, float[] out, int o) {
+        String pos = f[at];
+        if (pos.equals("r")) {
+            out[o] = POS_RANDOM;
+        } else if (pos.startsWith("+") || pos.startsWith("-")) {
+            out[o] = POS_RELATIVE;
+            out[o + 1] = Float.parseFloat(pos);
+        } else {
+            out[o] = POS_ABSOLUTE;
+            out[o + 1] = Float.parseFloat(pos);
+            if (out[o + 1] < 0 || out[o + 1] > 1) throw new IllegalArgumentException("position must be 0..1: " + pos);
+        }
+        out[o + 2] = Float.parseFloat(f[at + 1]);
+        out[o + 3] = Float.parseFloat(f[at + 2]);
+        if (out[o + 2] <= 0 || out[o + 3] <= 0) throw new IllegalArgumentException("gapScale and delayScale must be > 0");
+        int flags = 0;
+        String fl = f[at + 3];
+        if (!fl.equals("-")) {
+            for (int i = 0; i < fl.length(); i++) {
+                switch (fl.charAt(i)) {
+                    case 'm': flags |= FLAG_MOVING; break;
+                    case 'u': flags |= FLAG_MOVING | FLAG_UP; break;
+                    case 'd': flags |= FLAG_MOVING | FLAG_DOWN; break;
+                    case 's': flags |= FLAG_SLOW; break;
+                    default: throw new IllegalArgumentException("unknown flag '" + fl.charAt(i) + "'");
+                }
+            }
+        }
+        out[o + 4] = flags;
+    }
+}
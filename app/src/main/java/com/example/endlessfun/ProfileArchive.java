@@ -0,0 +1,233 @@
+package com.example.endlessfun;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The whole profile (settings and unlocks, the high score with its ghost replay, every
+ * StatsRollup row) as one streamed file: a 5-byte header (MAGIC, VERSION) written straight to
+ * the channel, then gzip of tagged records ending in TAG_END and the CRC32 of all record bytes.
+ * Stats rows go through in pages of PAGE_ROWS, so memory stays constant however long the
+ * history is; read() hands them to the Sink in batches of the same size.
+ */
+public final class ProfileArchive {
+
+    static final int MAGIC = 0x45465052;  // "EFPR"
+    static final int VERSION = 1;
+    static final int PAGE_ROWS = 256;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int TAG_END = 0;
+    private static final int TAG_SETTINGS = 1;
+    private static final int TAG_HIGH_SCORE = 2;
+    private static final int TAG_STATS = 3;
+
+    // Bounds for lengths read from the file, so a damaged one can't ask for huge arrays
+    private static final int MAX_BLOB_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_STRINGS = 10_000;
+
+    /** GamePrefs values that travel with the profile. */
+    static final class Settings {
+        int selectedBird;
+        int selectedBackground;
+        Set<Integer> unlockedBirds = new HashSet<>();
+        Set<String> achievements = new HashSet<>();
+        boolean ghost;
+        boolean autopilot;
+        boolean rewind;
+        boolean adaptiveDifficulty;
+    }
+
+    /** Stats rows in day order after afterDay, at most limit of them. */
+    interface StatsPages {
+        List<StatsRollup> page(int afterDay, int limit);
+    }
+
+    /** Receives an archive as it is read; stats arrive in batches of up to PAGE_ROWS. */
+    interface Sink {
+        void settings(Settings settings);
+
+        void highScore(HighScore highScore);
+
+        void stats(List<StatsRollup> batch);
+    }
+
+    /** Writes the profile to out; highScore may be null. Does not close out. */
+    static void write(WritableByteChannel out, Settings settings, HighScore highScore, StatsPages stats) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(5).putInt(MAGIC).put((byte) VERSION);
+        header.flip();
+        while (header.hasRemaining()) out.write(header);
+
+        OutputStream channel = Channels.newOutputStream(out);
+        GZIPOutputStream gzip = new GZIPOutputStream(channel, BUFFER_BYTES);
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(gzip, BUFFER_BYTES), new CRC32());
+        DataOutputStream data = new DataOutputStream(checked);
+
+        data.writeByte(TAG_SETTINGS);
+        data.writeInt(settings.selectedBird);
+        data.writeInt(settings.selectedBackground);
+        data.writeInt(settings.unlockedBirds.size());
+        for (int bird : settings.unlockedBirds) data.writeInt(bird);
+        data.writeInt(settings.achievements.size());
+        for (String id : settings.achievements) data.writeUTF(id);
+        data.writeByte((settings.ghost ? 1 : 0) | (settings.autopilot ? 2 : 0)
+                | (settings.rewind ? 4 : 0) | (settings.adaptiveDifficulty ? 8 : 0));
+
+        if (highScore != null) {
+            data.writeByte(TAG_HIGH_SCORE);
+            data.writeInt(highScore.score);
+            writeBlob(data, highScore.ghost);
+        }
+
+        int afterDay = Integer.MIN_VALUE;
+        List<StatsRollup> page;
+        do {
+            page = stats.page(afterDay, PAGE_ROWS);
+            for (StatsRollup r : page) {
+                data.writeByte(TAG_STATS);
+                data.writeInt(r.day);
+                data.writeInt(r.runs);
+                data.writeLong(r.pipes);
+                data.writeLong(r.jumps);
+                data.writeInt(r.bronze);
+                data.writeInt(r.silver);
+                data.writeInt(r.gold);
+                data.writeInt(r.platinum);
+                writeBlob(data, r.histogram);
+                afterDay = r.day;
+            }
+        } while (page.size() == PAGE_ROWS);
+
+        data.writeByte(TAG_END);
+        data.flush();
+        int crc = (int) checked.getChecksum().getValue();
+        new DataOutputStream(gzip).writeInt(crc);  // not part of its own checksum
+        gzip.finish();
+        channel.flush();
+    }
+
+    /**
+     * Reads an archive into sink. Throws IOException for a foreign, newer, truncated or damaged
+     * file; the checksum is only known at the end, so a sink that writes as it goes should do
+     * so in a transaction that this exception rolls back. Does not close in.
+     */
+    static void read(ReadableByteChannel in, Sink sink) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(5);
+        while (header.hasRemaining()) {
+            if (in.read(header) < 0) throw new EOFException("not a profile file");
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) throw new IOException("not a profile file");
+        int version = header.get();
+        if (version != VERSION) throw new IOException("unsupported profile version " + version);
+
+        InputStream channel = Channels.newInputStream(in);
+        GZIPInputStream gzip = new GZIPInputStream(channel, BUFFER_BYTES);
+        BufferedInputStream buffered = new BufferedInputStream(gzip, BUFFER_BYTES);
+        CheckedInputStream checked = new CheckedInputStream(buffered, new CRC32());
+        DataInputStream data = new DataInputStream(checked);
+
+        List<StatsRollup> batch = new ArrayList<>(PAGE_ROWS);
+        while (true) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case TAG_SETTINGS:
+                    sink.settings(readSettings(data));
+                    break;
+                case TAG_HIGH_SCORE: {
+                    HighScore hs = new HighScore();
+                    hs.score = data.readInt();
+                    hs.ghost = readBlob(data);
+                    sink.highScore(hs);
+                    break;
+                }
+                case TAG_STATS: {
+                    StatsRollup r = new StatsRollup();
+                    r.day = data.readInt();
+                    r.runs = data.readInt();
+                    r.pipes = data.readLong();
+                    r.jumps = data.readLong();
+                    r.bronze = data.readInt();
+                    r.silver = data.readInt();
+                    r.gold = data.readInt();
+                    r.platinum = data.readInt();
+                    r.histogram = readBlob(data);
+                    batch.add(r);
+                    if (batch.size() == PAGE_ROWS) {
+                        sink.stats(batch);
+                        batch = new ArrayList<>(PAGE_ROWS);
+                    }
+                    break;
+                }
+                case TAG_END: {
+                    int expected = (int) checked.getChecksum().getValue();
+                    if (new DataInputStream(buffered).readInt() != expected) throw new IOException("profile checksum mismatch");
+                    if (!batch.isEmpty()) sink.stats(batch);
+                    return;
+                }
+                default:
+                    throw new IOException("unknown profile record " + tag);
+            }
+        }
+    }
+
+    private static Settings readSettings(DataInputStream data) throws IOException {
+        Settings s = new Settings();
+        s.selectedBird = data.readInt();
+        s.selectedBackground = data.readInt();
+        int birds = readCount(data);
+        for (int i = 0; i < birds; i++) s.unlockedBirds.add(data.readInt());
+        int achievements = readCount(data);
+        for (int i = 0; i < achievements; i++) s.achievements.add(data.readUTF());
+        int flags = data.readUnsignedByte();
+        s.ghost = (flags & 1) != 0;
+        s.autopilot = (flags & 2) != 0;
+        s.rewind = (flags & 4) != 0;
+        s.adaptiveDifficulty = (flags & 8) != 0;
+        return s;
+    }
+
+    private static int readCount(DataInputStream data) throws IOException {
+        int n = data.readInt();
+        if (n < 0 || n > MAX_STRINGS) throw new IOException("bad profile record length " + n);
+        return n;
+    }
+
+    /** Length (-1 = null) then bytes. */
+    private static void writeBlob(DataOutputStream data, byte[] blob) throws IOException {
+        if (blob == null) {
+            data.writeInt(-1);
+            return;
+        }
+        data.writeInt(blob.length);
+        data.write(blob);
+    }
+
+    private static byte[] readBlob(DataInputStream data) throws IOException {
+        int n = data.readInt();
+        if (n == -1) return null;
+        if (n < 0 || n > MAX_BLOB_BYTES) throw new IOException("bad profile record length " + n);
+        byte[] blob = new byte[n];
+        data.readFully(blob);
+        return blob;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.endlessfun;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The last few seconds of a run for rewind-on-hit: one GameState snapshot per tick in a ring
+ * of fixed SNAPSHOT_MAX_BYTES slots inside a single preallocated ByteBuffer. A push is one
+ * bounded writeTo() into the next slot, with no allocation and no copying of older entries.
+ * pop() restores everything but the DifficultyTuner: the tuner has already learned from the
+ * hit being rewound (onHit), and that should outlast the rewind.
+ *
+ * Memory is fixed: SECONDS × TICKS_PER_SECOND × GameState.SNAPSHOT_MAX_BYTES, i.e.
+ * 3 × 50 × 528 = 79 200 bytes (about 77 KB). Typical snapshots (2–3 pipes) use only
+ * 178–203 bytes of their slot.
+ */
+public final class RewindBuffer {
+
+    static final int SECONDS = 3;
+    static final int TICKS_PER_SECOND = 50;  // GameView ticks every 20 ms
+    static final int CAPACITY_TICKS = SECONDS * TICKS_PER_SECOND;
+    static final int SLOT_BYTES = GameState.SNAPSHOT_MAX_BYTES;
+    static final int MEMORY_BYTES = CAPACITY_TICKS * SLOT_BYTES;
+
+    private final ByteBuffer buf = ByteBuffer.allocate(MEMORY_BYTES);
+    private final DifficultyTuner keptTuner = new DifficultyTuner();
+    private int head;  // next slot to write
+    private int size;
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Saves state as the newest entry, overwriting the oldest when full. */
+    public void push(GameState state) {
+        select(head);
+        state.writeTo(buf);
+        head = head + 1 == CAPACITY_TICKS ? 0 : head + 1;
+        if (size < CAPACITY_TICKS) size++;
+    }
+
+    /** Restores the newest entry into state (keeping its tuner) and drops it. False when empty. */
+    public boolean pop(GameState state) {
+        if (size == 0) return false;
+        head = head == 0 ? CAPACITY_TICKS - 1 : head - 1;
+        size--;
+        select(head);
+        keptTuner.copyFrom(state.tuner);
+        boolean ok = state.readFrom(buf);
+        state.tuner.copyFrom(keptTuner);
+        return ok;
+    }
+
+    private void select(int slot) {
+        buf.clear();
+        buf.position(slot * SLOT_BYTES);
+        buf.limit(slot * SLOT_BYTES + SLOT_BYTES);
+    }
+}
@@ -13,4 +13,21 @@ public interface ScoreDao {
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void saveHighScore(HighScore highScore);
+
+    /** Updates only the score, keeping the stored ghost. Returns rows changed (0 if no row yet). */
+    @Query("UPDATE HighScore SET score = :score WHERE id = 1")
+    int updateHighScore(int score);
+
+    @Query("SELECT * FROM HighScore WHERE id = 1")
+    HighScore get();
+
+    @Query("DELETE FROM HighScore")
+    void deleteAll();
+
+    @Query("SELECT ghost FROM HighScore WHERE id = 1")
+    byte[] getGhost();
+
+    /** Returns rows changed (0 if no row yet). */
+    @Query("UPDATE HighScore SET ghost = :ghost WHERE id = 1")
+    int updateGhost(byte[] ghost);
 }
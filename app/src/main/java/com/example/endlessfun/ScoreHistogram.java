@@ -0,0 +1,108 @@
+package com.example.endlessfun;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Run scores bucketed for percentiles without keeping every run: scores below EXACT get a
+ * bucket each, higher scores SUB_BUCKETS buckets per power of two (at most 12.5% wide). The
+ * whole int range fits in BUCKETS counters, so percentile() costs the same for 100 runs or
+ * 100 000. Stored as varint (gap, count) pairs of the non-empty buckets, a few dozen bytes.
+ */
+public final class ScoreHistogram {
+
+    static final int EXACT = 64;
+    private static final int EXACT_BITS = 6;        // log2(EXACT)
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = EXACT + (31 - EXACT_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    static int bucketOf(int score) {
+        if (score < EXACT) return Math.max(score, 0);
+        int octave = 31 - Integer.numberOfLeadingZeros(score);
+        int sub = (score >>> (octave - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (octave - EXACT_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /** Smallest score in a bucket. */
+    static int bucketLow(int bucket) {
+        if (bucket < EXACT) return bucket;
+        int octave = (bucket - EXACT) / SUB_BUCKETS + EXACT_BITS;
+        int sub = (bucket - EXACT) % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (octave - SUB_BITS);
+    }
+
+    public void add(int score) {
+        counts[bucketOf(score)]++;
+        total++;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /**
+     * Score at percentile p (0..1, 0.5 = median): the lowest bucket holding the ceil(p * count)-th
+     * smallest score, as its smallest score (exact below EXACT). 0 when empty.
+     */
+    public int percentile(double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) return bucketLow(b);
+        }
+        return bucketLow(BUCKETS - 1);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        int last = -1;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (counts[b] == 0) continue;
+            writeVarint(out, b - last - 1);
+            writeVarint(out, counts[b]);
+            last = b;
+        }
+        return out.toByteArray();
+    }
+
+    /** Decodes toBytes() output; null or empty gives an empty histogram, bad data is cut off. */
+    public static ScoreHistogram fromBytes(byte[] data) {
+        ScoreHistogram h = new ScoreHistogram();
+        if (data == null) return h;
+        int[] pos = { 0 };
+        int b = -1;
+        while (pos[0] < data.length) {
+            long gap = readVarint(data, pos);
+            long count = readVarint(data, pos);
+            if (gap < 0 || count < 0 || b + 1 + gap >= BUCKETS) break;
+            b += 1 + (int) gap;
+            h.counts[b] = count;
+            h.total += count;
+        }
+        return h;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    /** -1 on truncated or overlong input. */
+    private static long readVarint(byte[] data, int[] pos) {
+        long v = 0;
+        for (int shift = 0; shift < 63 && pos[0] < data.length; shift += 7) {
+            int b = data[pos[0]++];
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        return -1;
+    }
+}
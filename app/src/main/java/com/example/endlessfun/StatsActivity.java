@@ -0,0 +1,209 @@
+package com.example.endlessfun;
+
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Today, all-time and last-7-days totals (at most 8 StatsRollup rows) and achievements, plus
+ * export / import of the whole profile as a ProfileArchive file.
+ */
+public class StatsActivity extends AppCompatActivity {
+
+    private static final String TAG = "StatsActivity";
+    private static final int RECENT_DAYS = 7;
+    private static final String PROFILE_FILE_NAME = "endlessfun-profile.efp";
+    private static final String PROFILE_MIME_TYPE = "application/octet-stream";
+
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(PROFILE_MIME_TYPE), this::exportProfile);
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importProfile);
+
+    private GamePrefs prefs;
+
+    private LinearLayout todayContainer;
+    private LinearLayout lifetimeContainer;
+    private LinearLayout daysContainer;
+    private LinearLayout achievementsContainer;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_stats);
+
+        todayContainer = findViewById(R.id.todayContainer);
+        lifetimeContainer = findViewById(R.id.lifetimeContainer);
+        daysContainer = findViewById(R.id.daysContainer);
+        achievementsContainer = findViewById(R.id.achievementsContainer);
+
+        prefs = new GamePrefs(this);
+        findViewById(R.id.backButton).setOnClickListener(v -> finish());
+        findViewById(R.id.exportButton).setOnClickListener(v -> exportLauncher.launch(PROFILE_FILE_NAME));
+        findViewById(R.id.importButton).setOnClickListener(v -> importLauncher.launch(new String[] { "*/*" }));
+
+        showAchievements();
+        loadStats();
+    }
+
+    private void loadStats() {
+        int today = StatsRollup.dayOf(System.currentTimeMillis());
+        new Thread(() -> {
+            StatsDao dao = AppDatabase.getInstance(this).statsDao();
+            List<StatsRollup> days = dao.getDaysFrom(today - RECENT_DAYS + 1);
+            StatsRollup lifetime = dao.get(StatsRollup.LIFETIME);
+            StatsRollup todayRow = !days.isEmpty() && days.get(0).day == today ? days.get(0) : null;
+            runOnUiThread(() -> {
+                showTotals(todayContainer, todayRow);
+                showTotals(lifetimeContainer, lifetime);
+                showDays(days);
+            });
+        }).start();
+    }
+
+    private void showTotals(LinearLayout container, StatsRollup r) {
+        container.removeAllViews();
+        if (r == null || r.runs == 0) {
+            addRow(container, getString(R.string.stats_none), "");
+            return;
+        }
+        ScoreHistogram h = ScoreHistogram.fromBytes(r.histogram);
+        addRow(container, getString(R.string.stats_runs), String.valueOf(r.runs));
+        addRow(container, getString(R.string.stats_pipes), String.valueOf(r.pipes));
+        addRow(container, getString(R.string.stats_jumps), String.valueOf(r.jumps));
+        addRow(container, getString(R.string.stats_average), String.format(Locale.getDefault(), "%.1f", r.averageScore()));
+        addRow(container, getString(R.string.stats_median), String.valueOf(h.percentile(0.5)));
+        addRow(container, getString(R.string.stats_p90), String.valueOf(h.percentile(0.9)));
+        addRow(container, getString(R.string.stats_medals),
+                getString(R.string.stats_medals_format, r.bronze, r.silver, r.gold, r.platinum));
+    }
+
+    private void showDays(List<StatsRollup> days) {
+        daysContainer.removeAllViews();
+        if (days.isEmpty()) {
+            addRow(daysContainer, getString(R.string.stats_none), "");
+            return;
+        }
+        // Day numbers are local dates; format them as UTC midnight so the zone doesn't shift them
+        DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        for (StatsRollup r : days) {
+            int median = ScoreHistogram.fromBytes(r.histogram).percentile(0.5);
+            addRow(daysContainer, dateFormat.format(new Date(r.day * 86_400_000L)),
+                    getString(R.string.stats_day_format, r.runs, median));
+        }
+    }
+
+    private void showAchievements() {
+        achievementsContainer.removeAllViews();
+        Achievements achievements = Achievements.createDefault();
+        achievements.setUnlocked(prefs.getUnlockedAchievements());
+        for (Achievements.Rule r : achievements.rules) {
+            addRow(achievementsContainer, getString(r.titleRes),
+                    getString(achievements.isUnlocked(r) ? R.string.achievement_done : R.string.achievement_locked));
+        }
+    }
+
+    /** Streams the profile to the picked document (background thread). */
+    private void exportProfile(Uri uri) {
+        if (uri == null) return;
+        new Thread(() -> {
+            AppDatabase db = AppDatabase.getInstance(this);
+            try (FileChannel out = new ParcelFileDescriptor.AutoCloseOutputStream(open(uri, "wt")).getChannel()) {
+                ProfileArchive.write(out, prefs.getProfileSettings(), db.scoreDao().get(), db.statsDao()::getPage);
+                toast(getString(R.string.profile_exported));
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "profile export failed", e);
+                toast(getString(R.string.profile_failed, e.getMessage()));
+            }
+        }).start();
+    }
+
+    /**
+     * Replaces the profile with the picked archive: high score and stats in one Room transaction
+     * (rolled back if the file turns out damaged), then the prefs in one write.
+     */
+    private void importProfile(Uri uri) {
+        if (uri == null) return;
+        new Thread(() -> {
+            AppDatabase db = AppDatabase.getInstance(this);
+            ProfileArchive.Settings[] settings = { null };
+            try (FileChannel in = new ParcelFileDescriptor.AutoCloseInputStream(open(uri, "r")).getChannel()) {
+                try {
+                    db.runInTransaction(() -> {
+                        db.scoreDao().deleteAll();
+                        db.statsDao().deleteAll();
+                        try {
+                            ProfileArchive.read(in, new ProfileArchive.Sink() {
+                                @Override
+                                public void settings(ProfileArchive.Settings s) {
+                                    settings[0] = s;
+                                }
+
+                                @Override
+                                public void highScore(HighScore highScore) {
+                                    db.scoreDao().saveHighScore(highScore);
+                                }
+
+                                @Override
+                                public void stats(List<StatsRollup> batch) {
+                                    db.statsDao().saveAll(batch);
+                                }
+                            });
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (settings[0] != null) prefs.applyProfileSettings(settings[0]);
+                toast(getString(R.string.profile_imported));
+                runOnUiThread(() -> {
+                    showAchievements();
+                    loadStats();
+                });
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "profile import failed", e);
+                toast(getString(R.string.profile_failed, e.getMessage()));
+            }
+        }).start();
+    }
+
+    private ParcelFileDescriptor open(Uri uri, String mode) throws FileNotFoundException {
+        ParcelFileDescriptor pfd = getContentResolver().openFileDescriptor(uri, mode);
+        if (pfd == null) throw new FileNotFoundException(uri.toString());
+        return pfd;
+    }
+
+    private void toast(String text) {
+        runOnUiThread(() -> Toast.makeText(this, text, Toast.LENGTH_LONG).show());
+    }
+
+    private void addRow(LinearLayout container, String label, String value) {
+        View row = LayoutInflater.from(this).inflate(R.layout.item_stat, container, false);
+        ((TextView) row.findViewById(R.id.statLabel)).setText(label);
+        ((TextView) row.findViewById(R.id.statValue)).setText(value);
+        container.addView(row);
+    }
+}
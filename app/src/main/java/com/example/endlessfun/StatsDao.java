@@ -0,0 +1,47 @@
+package com.example.endlessfun;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public interface StatsDao {
+
+    @Query("SELECT * FROM StatsRollup WHERE day = :day")
+    StatsRollup get(int day);
+
+    /** Days from :fromDay on (LIFETIME excluded), newest first. */
+    @Query("SELECT * FROM StatsRollup WHERE day >= :fromDay ORDER BY day DESC")
+    List<StatsRollup> getDaysFrom(int fromDay);
+
+    /** Keyset page for ProfileArchive: rows after :afterDay in day order (LIFETIME first). */
+    @Query("SELECT * FROM StatsRollup WHERE day > :afterDay ORDER BY day LIMIT :limit")
+    List<StatsRollup> getPage(int afterDay, int limit);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(StatsRollup rollup);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void saveAll(List<StatsRollup> rollups);
+
+    @Query("DELETE FROM StatsRollup")
+    void deleteAll();
+
+    /** One finished run: updates that day's row and the lifetime row in one transaction. */
+    @Transaction
+    default void addRun(int day, int score, int jumps) {
+        for (int d : new int[] { day, StatsRollup.LIFETIME }) {
+            StatsRollup r = get(d);
+            if (r == null) {
+                r = new StatsRollup();
+                r.day = d;
+            }
+            r.addRun(score, jumps);
+            save(r);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.endlessfun;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import java.util.TimeZone;
+
+/**
+ * Running totals for one local day (or all time, day = LIFETIME), updated once per finished
+ * run by StatsDao.addRun. Pipes passed is the sum of run scores; the score histogram gives
+ * median and percentiles.
+ */
+@Entity
+public class StatsRollup {
+
+    /** day of the all-time row. */
+    public static final int LIFETIME = -1;
+
+    /** Days since 1970-01-01 in the device's time zone, or LIFETIME. */
+    @PrimaryKey
+    public int day;
+
+    public int runs;
+    public long pipes;
+    public long jumps;
+
+    // Medals earned, by Medals tier
+    public int bronze;
+    public int silver;
+    public int gold;
+    public int platinum;
+
+    /** Encoded ScoreHistogram of run scores. */
+    public byte[] histogram;
+
+    static int dayOf(long timeMillis) {
+        long local = timeMillis + TimeZone.getDefault().getOffset(timeMillis);
+        return (int) Math.floorDiv(local, 86_400_000L);
+    }
+
+    void addRun(int score, int runJumps) {
+        runs++;
+        pipes += score;
+        jumps += runJumps;
+        switch (Medals.tier(score)) {
+            case Medals.PLATINUM: platinum++; break;
+            case Medals.GOLD: gold++; break;
+            case Medals.SILVER: silver++; break;
+            case Medals.BRONZE: bronze++; break;
+            default: break;
+        }
+        ScoreHistogram h = ScoreHistogram.fromBytes(histogram);
+        h.add(score);
+        histogram = h.toBytes();
+    }
+
+    double averageScore() {
+        return runs > 0 ? (double) pipes / runs : 0;
+    }
+}
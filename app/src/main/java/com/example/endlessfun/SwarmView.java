@@ -0,0 +1,213 @@
+package com.example.endlessfun;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * AI training mode: runs a BirdSwarm as fast as it can on a background thread and draws the
+ * shared pipes plus only the TOP_K best-ranked alive birds, with a HUD showing the
+ * generation and birds simulated per second.
+ *
+ * Only the sim thread touches the swarm. Once per frame it copies what onDraw needs into a
+ * small Frame, so the UI thread waits at most for that copy, never for a tick.
+ */
+public class SwarmView extends View implements Runnable {
+
+    private static final int SWARM_SIZE = 2000;
+    private static final int TOP_K = 12;
+    private static final int MAX_POLICY_THREADS = 4;  // about the number of big cores on a phone
+    private static final long FRAME_MS = 16;
+    private static final int BIRD_ALPHA = 140;
+
+    private BirdSwarm swarm;
+    private Thread simThread;
+    private volatile boolean running;
+
+    private Bitmap playerBitmap;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final int[] top = new int[TOP_K];
+    private final Frame frame = new Frame();  // written by the sim thread, drawn by onDraw; guarded by itself
+
+    // Throughput, updated by the sim thread about once a second
+    private volatile long birdsPerSecond;
+
+    // HUD lines, formatted again only when their values change
+    private int shownGeneration = -1, shownAlive = -1, shownPipes = -1, shownBest = -1;
+    private long shownBirdsPerSecond = -1;
+    private String generationText, aliveText, pipesText, birdsPerSecondText;
+
+    public SwarmView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        int screenWidth = Resources.getSystem().getDisplayMetrics().widthPixels;
+        int screenHeight = Resources.getSystem().getDisplayMetrics().heightPixels;
+        playerBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.player);
+        playerBitmap = Bitmap.createScaledBitmap(playerBitmap, screenWidth / 8, screenHeight / 18, true);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        stop();
+        if (swarm != null) swarm.shutdown();
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), MAX_POLICY_THREADS);
+        swarm = new BirdSwarm(SWARM_SIZE, threads, System.nanoTime());
+        swarm.setScreen(w, h, playerBitmap.getWidth(), playerBitmap.getHeight());
+        start();
+    }
+
+    private void start() {
+        if (swarm == null || running) return;
+        running = true;
+        simThread = new Thread(this, "swarm");
+        simThread.start();
+    }
+
+    private void stop() {
+        running = false;
+        if (simThread != null) {
+            try { simThread.join(); } catch (InterruptedException ignored) {}
+            simThread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        BirdSwarm s = swarm;
+        long lastFrame = 0;
+        long windowStart = SystemClock.uptimeMillis();
+        long windowBirds = s.birdTicks;
+        while (running) {
+            s.tick();
+            long now = SystemClock.uptimeMillis();
+            if (now - lastFrame >= FRAME_MS) {
+                lastFrame = now;
+                synchronized (frame) {
+                    frame.copyFrom(s, top);
+                }
+                postInvalidate();
+            }
+            if (now - windowStart >= 1000) {
+                birdsPerSecond = (s.birdTicks - windowBirds) * 1000 / (now - windowStart);
+                windowStart = now;
+                windowBirds = s.birdTicks;
+            }
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        canvas.drawColor(getResources().getColor(R.color.bg_night, null));
+        if (swarm == null) return;
+
+        int generation, alive, pipes, best;
+        synchronized (frame) {
+            Frame f = frame;
+            paint.setColor(getResources().getColor(R.color.pipe_color, null));
+            for (int i = 0; i < f.pipeCount; i++) {
+                canvas.drawRect(f.pipeLeft[i], 0, f.pipeRight[i], f.gapTop[i], paint);
+                canvas.drawRect(f.pipeLeft[i], f.gapBottom[i], f.pipeRight[i], getHeight(), paint);
+            }
+
+            // Only the top-K birds are drawn; the rest are simulated but invisible
+            paint.setAlpha(BIRD_ALPHA);
+            float x = f.playerX - playerBitmap.getWidth() / 2f;
+            for (int i = 0; i < f.birdCount; i++) {
+                canvas.drawBitmap(playerBitmap, x, f.birdY[i] - playerBitmap.getHeight() / 2f, paint);
+            }
+            generation = f.generation;
+            alive = f.alive;
+            pipes = f.pipes;
+            best = f.best;
+        }
+
+        Context c = getContext();
+        if (generation != shownGeneration) {
+            shownGeneration = generation;
+            generationText = c.getString(R.string.training_generation, generation);
+        }
+        if (alive != shownAlive) {
+            shownAlive = alive;
+            aliveText = c.getString(R.string.training_alive, alive, SWARM_SIZE);
+        }
+        if (pipes != shownPipes || best != shownBest) {
+            shownPipes = pipes;
+            shownBest = best;
+            pipesText = c.getString(R.string.training_pipes, pipes, best);
+        }
+        long bps = birdsPerSecond;
+        if (bps != shownBirdsPerSecond) {
+            shownBirdsPerSecond = bps;
+            birdsPerSecondText = c.getString(R.string.training_birds_per_second, bps);
+        }
+
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(40);
+        float left = 32, lineH = 52, topY = 72;
+        canvas.drawText(generationText, left, topY, paint);
+        canvas.drawText(aliveText, left, topY + lineH, paint);
+        canvas.drawText(pipesText, left, topY + lineH * 2, paint);
+        canvas.drawText(birdsPerSecondText, left, topY + lineH * 3, paint);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        start();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        stop();
+        if (swarm != null) swarm.shutdown();
+        swarm = null;
+    }
+
+    public void pause() {
+        stop();
+    }
+
+    public void resume() {
+        start();
+    }
+
+    /** What onDraw needs from the swarm: the pipes, the top birds and the HUD numbers. */
+    private static final class Frame {
+        int pipeCount;
+        final float[] pipeLeft = new float[GameState.MAX_OBSTACLES];
+        final float[] pipeRight = new float[GameState.MAX_OBSTACLES];
+        final float[] gapTop = new float[GameState.MAX_OBSTACLES];
+        final float[] gapBottom = new float[GameState.MAX_OBSTACLES];
+        float playerX;
+        int birdCount;
+        final float[] birdY = new float[TOP_K];
+        int generation, alive, pipes, best;
+
+        /** Called on the sim thread, between ticks. top is scratch space of TOP_K entries. */
+        void copyFrom(BirdSwarm s, int[] top) {
+            GameState f = s.field;
+            pipeCount = f.obstacleCount;
+            for (int i = 0; i < pipeCount; i++) {
+                pipeLeft[i] = f.obstX[i];
+                pipeRight[i] = f.obstX[i] + f.obstWidth[i];
+                gapTop[i] = f.gapTop(i);
+                gapBottom[i] = f.gapBottom(i);
+            }
+            playerX = f.playerX;
+            birdCount = s.topAlive(top);
+            for (int i = 0; i < birdCount; i++) birdY[i] = s.y[top[i]];
+            generation = s.generation;
+            alive = s.aliveCount;
+            pipes = s.generationPipes;
+            best = s.bestPipes;
+        }
+    }
+}
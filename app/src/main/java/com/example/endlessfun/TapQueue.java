@@ -0,0 +1,45 @@
+package com.example.endlessfun;
+
+/**
+ * Flap taps handed from the UI thread to the game thread. Each tap keeps its
+ * {@code MotionEvent.getEventTime()} (uptime millis) so the game loop applies it
+ * at the first tick at or after the moment the finger actually touched down.
+ * Fixed-size ring buffer: no allocation per tap.
+ */
+public final class TapQueue {
+
+    private static final int CAPACITY = 32; // power of two
+
+    private final long[] times = new long[CAPACITY];
+    private int head = 0;  // next to read
+    private int size = 0;
+
+    /** Called from the UI thread. If the queue is full the oldest tap is dropped. */
+    public synchronized void push(long eventTime) {
+        if (size == CAPACITY) {
+            head = (head + 1) & (CAPACITY - 1);
+            size--;
+        }
+        times[(head + size) & (CAPACITY - 1)] = eventTime;
+        size++;
+    }
+
+    /**
+     * Removes every tap with eventTime <= tickTime and returns the latest such
+     * eventTime, or -1 if none is due yet. Several taps in one tick collapse into one flap.
+     */
+    public synchronized long pollUntil(long tickTime) {
+        long latest = -1;
+        while (size > 0 && times[head] <= tickTime) {
+            latest = times[head];
+            head = (head + 1) & (CAPACITY - 1);
+            size--;
+        }
+        return latest;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.endlessfun;
+
+import android.os.Bundle;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+/** Hosts SwarmView (AI training mode). Simulation stops while the screen is not visible. */
+public class TrainingActivity extends AppCompatActivity {
+
+    private SwarmView swarmView;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_training);
+
+        swarmView = findViewById(R.id.swarmView);
+        findViewById(R.id.backButton).setOnClickListener(v -> finish());
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        swarmView.pause();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        swarmView.resume();
+    }
+}
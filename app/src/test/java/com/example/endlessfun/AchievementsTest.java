@@ -0,0 +1,188 @@
+package com.example.endlessfun;
+
+import static com.example.endlessfun.GameFixtures.newRun;
+import static com.example.endlessfun.GameFixtures.shouldFlap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class AchievementsTest {
+
+    /** Counts the events it sees; never unlocks. */
+    private static final class Counting extends Achievements.Rule {
+        int seen;
+
+        Counting(int... types) {
+            super("counting", 0, types);
+        }
+
+        @Override
+        boolean onEvent(int type, int value) {
+            seen++;
+            return false;
+        }
+    }
+
+    @Test
+    public void eventsOnlyReachRulesThatListen() {
+        Counting flaps = new Counting(GameEventQueue.FLAP);
+        Counting hits = new Counting(GameEventQueue.HIT, GameEventQueue.RUN_END);
+        Achievements a = new Achievements(flaps, hits);
+        for (int i = 0; i < 5; i++) a.dispatch(GameEventQueue.FLAP, 0);
+        a.dispatch(GameEventQueue.SCORE, 1);
+        a.dispatch(GameEventQueue.HIT, 2);
+        assertEquals(5, flaps.seen);
+        assertEquals(1, hits.seen);
+    }
+
+    @Test
+    public void movingStreakResetsOnFixedGapAndHit() {
+        Achievements a = new Achievements(new Achievements.Streak("streak", 0, GameEventQueue.PIPE_PASSED,
+                GameEventQueue.PASSED_MOVING, 3, GameEventQueue.HIT));
+        a.dispatch(GameEventQueue.RUN_START, 0);
+        passMoving(a, 2);
+        a.dispatch(GameEventQueue.PIPE_PASSED, 0);
+        passMoving(a, 2);
+        a.dispatch(GameEventQueue.HIT, 2);
+        passMoving(a, 2);
+        assertTrue(a.takeNewlyUnlocked().isEmpty());
+        passMoving(a, 1);
+        List<Achievements.Rule> unlocked = a.takeNewlyUnlocked();
+        assertEquals(1, unlocked.size());
+        assertEquals("streak", unlocked.get(0).id);
+        assertTrue(a.takeNewlyUnlocked().isEmpty());
+    }
+
+    @Test
+    public void cleanRunNeedsNoHitAndMinScore() {
+        Achievements a = new Achievements(new Achievements.CleanRun("clean", 0, 10));
+        a.dispatch(GameEventQueue.RUN_START, 0);
+        a.dispatch(GameEventQueue.RUN_END, 9);
+        a.dispatch(GameEventQueue.RUN_START, 0);
+        a.dispatch(GameEventQueue.HIT, 2);
+        a.dispatch(GameEventQueue.RUN_END, 30);
+        assertFalse(a.isUnlocked(a.rules[0]));
+        a.dispatch(GameEventQueue.RUN_START, 0);
+        a.dispatch(GameEventQueue.RUN_END, 10);
+        assertTrue(a.isUnlocked(a.rules[0]));
+    }
+
+    @Test
+    public void savedUnlocksAreSkipped() {
+        Counting rule = new Counting(GameEventQueue.FLAP);
+        Achievements a = new Achievements(rule);
+        a.setUnlocked(Collections.singleton("counting"));
+        a.dispatch(GameEventQueue.FLAP, 0);
+        assertEquals(0, rule.seen);
+        assertTrue(a.takeNewlyUnlocked().isEmpty());
+    }
+
+    @Test
+    public void gameStateEmitsEventsForLiveRun() {
+        GameState s = newRun(3);
+        GameEventQueue queue = new GameEventQueue();
+        s.eventQueue = queue;
+        Achievements a = new Achievements(new Achievements.Reach("score5", 0, GameEventQueue.SCORE, 5));
+        a.dispatch(GameEventQueue.RUN_START, 0);
+        int flaps = 0;
+        for (int t = 0; t < 3000 && !s.gameOver && a.takeNewlyUnlocked().isEmpty(); t++) {
+            int events = s.tick(shouldFlap(s));
+            if ((events & GameState.EVENT_FLAP) != 0) flaps++;
+            while (!queue.isEmpty()) {
+                if (queue.peekType() == GameEventQueue.FLAP) flaps--;
+                a.dispatch(queue.peekType(), queue.peekValue());
+                queue.poll();
+            }
+        }
+        assertEquals(0, flaps);
+        assertTrue(a.isUnlocked(a.rules[0]));
+
+        GameState clone = new GameState();
+        clone.copyFrom(s);
+        assertNull(clone.eventQueue);
+    }
+
+    @Test
+    public void runEndComesOnceAfterTheTicksScoring() {
+        GameState s = newRun(3);
+        while (s.countdownActive) s.tick(false);
+        GameEventQueue queue = new GameEventQueue();
+        s.eventQueue = queue;
+
+        // Same tick: the bird hits the floor, passes one pipe and loses its last life on another
+        s.obstacleCount = 2;
+        for (int i = 0; i < 2; i++) {
+            s.obstWidth[i] = s.width / 8f;
+            s.gapCenterY[i] = 500;
+            s.gapH[i] = 300;
+            s.speedMult[i] = 1;
+        }
+        s.obstX[0] = s.playerX - s.obstWidth[0] + 5;  // passes the bird this tick
+        s.obstX[1] = s.playerX;                       // bird is below its gap
+        s.playerY = s.height - s.playerH / 2f - 1;
+        s.velocityY = 10;
+        s.lives = 1;
+        s.spawnTimer = 0;
+        int events = s.tick(false);
+        assertEquals(GameState.EVENT_SCORED | GameState.EVENT_HIT | GameState.EVENT_GAME_OVER, events);
+
+        int[] expected = { GameEventQueue.PIPE_PASSED, GameEventQueue.SCORE, GameEventQueue.HIT, GameEventQueue.RUN_END };
+        for (int type : expected) {
+            assertFalse(queue.isEmpty());
+            assertEquals(type, queue.peekType());
+            assertEquals(s.runTicks, queue.peekTick());
+            if (type == GameEventQueue.RUN_END) assertEquals(1, queue.peekValue());
+            queue.poll();
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(0, s.tick(false));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void drainWaitsForTickAndDropAfterWithdrawsRewoundEvents() {
+        GameEventQueue queue = new GameEventQueue();
+        for (int tick = 1; tick <= 10; tick++) queue.push(GameEventQueue.FLAP, 0, tick);
+        Counting flaps = new Counting(GameEventQueue.FLAP);
+        Achievements a = new Achievements(flaps);
+        a.drain(queue, 4);
+        assertEquals(4, flaps.seen);
+        queue.dropAfter(7);
+        a.drain(queue);
+        assertEquals(7, flaps.seen);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void rewoundFlapsAreNotCounted() {
+        GameState s = newRun(8);
+        GameEventQueue queue = new GameEventQueue();
+        s.eventQueue = queue;
+        RewindBuffer rewind = new RewindBuffer();
+        Counting flaps = new Counting(GameEventQueue.FLAP);
+        Achievements a = new Achievements(flaps);
+        for (int t = 0; t < 600; t++) {
+            s.lives = GameState.LIVES_MAX;
+            if (!s.countdownActive) rewind.push(s);
+            s.tick(shouldFlap(s));
+            a.drain(queue, s.runTicks - 100);
+        }
+        int jumpsBefore = s.jumps;
+        for (int i = 0; i < 100; i++) assertTrue(rewind.pop(s));
+        queue.dropAfter(s.runTicks);
+        a.drain(queue);
+        assertTrue(s.jumps < jumpsBefore);
+        assertEquals(s.jumps, flaps.seen);
+    }
+
+
+    private static void passMoving(Achievements a, int n) {
+        for (int i = 0; i < n; i++) a.dispatch(GameEventQueue.PIPE_PASSED, GameEventQueue.PASSED_MOVING);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.endlessfun;
+
+import static com.example.endlessfun.GameFixtures.newRun;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AutopilotTest {
+
+    @Test
+    public void everyDecisionStaysWithinNodeBudget() {
+        GameState s = newRun(3);
+        Autopilot a = new Autopilot();
+        for (int t = 0; t < 5000 && !s.gameOver; t++) {
+            long before = a.nodes;
+            boolean flap = a.decide(s);
+            long used = a.nodes - before;
+            assertTrue("tick " + t + " used " + used, used <= Autopilot.NODE_BUDGET + Autopilot.DECISION_TICKS);
+            s.tick(flap);
+        }
+    }
+
+    /** Seed 7 gets past 50 pipes; most ticks follow the shifted plan instead of searching. */
+    @Test
+    public void clearsPipesWithFixedSeedAndReusesItsPlan() {
+        GameState s = newRun(7);
+        Autopilot a = new Autopilot();
+        for (int t = 0; t < 20_000 && s.score < 25; t++) {
+            s.tick(a.decide(s));
+            assertFalse("game over at tick " + t + ", score " + s.score, s.gameOver);
+        }
+        assertTrue("score " + s.score, s.score >= 25);
+        assertTrue("searches " + a.searches + ", reuses " + a.reuses, a.reuses > 4 * a.searches);
+    }
+}
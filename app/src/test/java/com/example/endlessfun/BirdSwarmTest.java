@@ -0,0 +1,35 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class BirdSwarmTest {
+
+    @Test
+    public void parallelPolicyMatchesSingleThread() {
+        BirdSwarm single = newSwarm(1);
+        BirdSwarm parallel = newSwarm(4);
+        try {
+            for (int t = 0; t < 3000; t++) {
+                single.tick();
+                parallel.tick();
+            }
+            assertEquals(single.generation, parallel.generation);
+            assertEquals(single.aliveCount, parallel.aliveCount);
+            assertEquals(single.birdTicks, parallel.birdTicks);
+            assertArrayEquals(single.y, parallel.y, 0f);
+            assertArrayEquals(single.fitness, parallel.fitness);
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    private static BirdSwarm newSwarm(int threads) {
+        BirdSwarm s = new BirdSwarm(1001, threads, 42);  // not a multiple of the thread count
+        s.setScreen(GameFixtures.WIDTH, GameFixtures.HEIGHT, GameFixtures.PLAYER_W, GameFixtures.PLAYER_H);
+        return s;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CollisionMaskTest {
+
+    private static final int OPAQUE = 0xFF000000;
+
+    @Test
+    public void matchesBruteForceOnRandomMasks() {
+        Random rnd = new Random(7);
+        for (int width : new int[] { 1, 5, 63, 64, 65, 127, 128, 130, 200 }) {
+            int height = 1 + rnd.nextInt(40);
+            int[] argb = new int[width * height];
+            for (int i = 0; i < argb.length; i++) argb[i] = rnd.nextInt(4) == 0 ? OPAQUE : rnd.nextInt(128) << 24;
+            CollisionMask mask = CollisionMask.fromArgb(argb, width, height);
+            for (int k = 0; k < 3000; k++) {
+                float left = rnd.nextFloat() * 20 - 10;
+                float top = rnd.nextFloat() * 20 - 10;
+                float x0 = left - 10 + rnd.nextFloat() * (width + 20);
+                float y0 = top - 10 + rnd.nextFloat() * (height + 20);
+                float x1 = x0 + rnd.nextFloat() * (rnd.nextBoolean() ? 3 : width);
+                float y1 = y0 + rnd.nextFloat() * (rnd.nextBoolean() ? 3 : height);
+                assertEquals("width " + width + " rect " + x0 + "," + y0 + "," + x1 + "," + y1,
+                        bruteForce(argb, width, height, left, top, x0, y0, x1, y1),
+                        mask.hitsRect(left, top, x0, y0, x1, y1));
+            }
+        }
+    }
+
+    @Test
+    public void singleColumnsAtWordBoundaries() {
+        int width = 130;  // three words per row, the last one partly used
+        for (int col : new int[] { 0, 1, 62, 63, 64, 65, 126, 127, 128, 129 }) {
+            int[] argb = new int[width * 2];
+            argb[width + col] = OPAQUE;
+            CollisionMask mask = CollisionMask.fromArgb(argb, width, 2);
+            for (int c = 0; c < width; c++) {
+                assertEquals("opaque " + col + " rect " + c, c == col, mask.hitsRect(0, 0, c, 0, c + 1, 2));
+            }
+            // Ranges that start or end exactly on the opaque column, inside one word and across words
+            assertTrue(mask.hitsRect(0, 0, col, 0, width, 2));
+            assertTrue(mask.hitsRect(0, 0, 0, 0, col + 1, 2));
+            assertFalse(mask.hitsRect(0, 0, col + 1, 0, width, 2));
+            assertFalse(mask.hitsRect(0, 0, 0, 0, col, 2));
+            assertFalse("wrong row", mask.hitsRect(0, 0, 0, 0, width, 1));
+        }
+    }
+
+    @Test
+    public void spanThatCoversMiddleWordsOnly() {
+        int width = 200;
+        int[] argb = new int[width];
+        argb[100] = OPAQUE;  // middle word (64..127)
+        CollisionMask mask = CollisionMask.fromArgb(argb, width, 1);
+        assertTrue(mask.hitsRect(0, 0, 10, 0, 190, 1));
+        assertFalse(mask.hitsRect(0, 0, 10, 0, 100, 1));
+        assertFalse(mask.hitsRect(0, 0, 101, 0, 190, 1));
+    }
+
+    @Test
+    public void transparentSpriteNeverHits() {
+        CollisionMask mask = CollisionMask.fromArgb(new int[70 * 10], 70, 10);
+        assertTrue(mask.minX > mask.maxX);
+        assertFalse(mask.hitsRect(0, 0, -100, -100, 100, 100));
+        assertFalse(mask.hitsRect(3.5f, 2.5f, 0, 0, 70, 10));
+    }
+
+    @Test
+    public void alphaThresholdAndBounds() {
+        int[] argb = new int[10 * 4];
+        argb[1 * 10 + 2] = (CollisionMask.ALPHA_THRESHOLD - 1) << 24;  // just below: ignored
+        argb[2 * 10 + 7] = CollisionMask.ALPHA_THRESHOLD << 24;
+        CollisionMask mask = CollisionMask.fromArgb(argb, 10, 4);
+        assertEquals(7, mask.minX);
+        assertEquals(7, mask.maxX);
+        assertEquals(2, mask.minY);
+        assertEquals(2, mask.maxY);
+        assertFalse(mask.hitsRect(0, 0, 2, 1, 3, 2));
+        assertTrue(mask.hitsRect(0.5f, 0.5f, 7.9f, 2.9f, 8, 3));   // pixel covers [7.5, 8.5) x [2.5, 3.5)
+        assertFalse(mask.hitsRect(0.5f, 0.5f, 8.5f, 2.5f, 9, 3));  // touches its right edge only
+    }
+
+    /** Every opaque pixel [left + x, left + x + 1) x [top + y, top + y + 1) against the rect. */
+    private static boolean bruteForce(int[] argb, int width, int height, float left, float top,
+                                      float x0, float y0, float x1, float y1) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if ((argb[y * width + x] >>> 24) < CollisionMask.ALPHA_THRESHOLD) continue;
+                float px = left + x;
+                float py = top + y;
+                if (px < x1 && x0 < px + 1 && py < y1 && y0 < py + 1) return true;
+            }
+        }
+        return false;
+    }
+}
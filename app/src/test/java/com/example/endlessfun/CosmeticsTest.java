@@ -0,0 +1,83 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class CosmeticsTest {
+
+    @Test
+    public void catalogDrivesUnlockThresholds() {
+        assertEquals(Cosmetics.BIRDS.length, BirdUnlock.BIRD_COUNT);
+        assertEquals(Cosmetics.BIRDS.length - 1, BirdUnlock.THRESHOLDS.length);
+        assertEquals(0, Cosmetics.BIRDS[0].unlockScore);
+        assertEquals(0, Cosmetics.BIRDS[0].tint);
+        for (int i = 1; i < Cosmetics.BIRDS.length; i++) {
+            assertTrue(Cosmetics.BIRDS[i].unlockScore > Cosmetics.BIRDS[i - 1].unlockScore);
+            assertEquals(Cosmetics.BIRDS[i].unlockScore, BirdUnlock.THRESHOLDS[i - 1]);
+            assertNotEquals(0, Cosmetics.BIRDS[i].tint);
+        }
+        for (Cosmetics.Item bg : Cosmetics.BACKGROUNDS) assertEquals(0, bg.unlockScore);
+    }
+
+    @Test
+    public void highScoreUnlocksBirdsAtTheirCatalogScore() {
+        for (int i = 1; i < Cosmetics.BIRDS.length; i++) {
+            int score = Cosmetics.BIRDS[i].unlockScore;
+            Set<Integer> below = BirdUnlock.decode("");
+            BirdUnlock.addUnlocksForHighScore(below, score - 1);
+            assertFalse(below.contains(i));
+            Set<Integer> at = BirdUnlock.decode("");
+            BirdUnlock.addUnlocksForHighScore(at, score);
+            assertTrue(at.contains(i));
+        }
+    }
+
+    @Test
+    public void outOfRangeIndicesFallBackToFirst() {
+        assertSame(Cosmetics.BIRDS[0], Cosmetics.bird(-1));
+        assertSame(Cosmetics.BIRDS[0], Cosmetics.bird(Cosmetics.BIRDS.length));
+        assertSame(Cosmetics.BACKGROUNDS[0], Cosmetics.background(99));
+    }
+
+    @Test
+    public void selectionChangeAltersTwoRows() {
+        Set<Integer> unlocked = new HashSet<>();
+        unlocked.add(0);
+        unlocked.add(1);
+        unlocked.add(2);
+        List<CosmeticsAdapter.Row> before = CosmeticsAdapter.buildRows(unlocked, 1, 0);
+        List<CosmeticsAdapter.Row> after = CosmeticsAdapter.buildRows(unlocked, 2, 0);
+        assertEquals(before.size(), after.size());
+        int changed = 0;
+        for (int i = 0; i < before.size(); i++) {
+            CosmeticsAdapter.Row a = before.get(i);
+            CosmeticsAdapter.Row b = after.get(i);
+            assertEquals(a.type, b.type);
+            assertEquals(a.index, b.index);
+            if (!a.equals(b)) changed++;
+        }
+        assertEquals(2, changed);
+    }
+
+    @Test
+    public void lockedBirdIsNeverSelected() {
+        Set<Integer> unlocked = new HashSet<>();
+        unlocked.add(0);
+        for (CosmeticsAdapter.Row r : CosmeticsAdapter.buildRows(unlocked, 3, 0)) {
+            if (r.type == CosmeticsAdapter.TYPE_BIRD && r.index == 3) {
+                assertFalse(r.unlocked);
+                assertFalse(r.selected);
+            }
+            if (r.type == CosmeticsAdapter.TYPE_BIRD && r.index == 0) assertTrue(r.unlocked);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.endlessfun;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/** Canvas that only counts draw calls and remembers the bitmaps drawn (nothing is rasterized). */
+class CountingCanvas extends Canvas {
+
+    static final int MAX_BITMAPS = 8;
+
+    int drawCalls;
+    final Bitmap[] bitmaps = new Bitmap[MAX_BITMAPS];
+    int bitmapCount;
+
+    void reset() {
+        drawCalls = 0;
+        bitmapCount = 0;
+    }
+
+    private void bitmap(Bitmap b) {
+        drawCalls++;
+        if (bitmapCount < MAX_BITMAPS) bitmaps[bitmapCount] = b;
+        bitmapCount++;
+    }
+
+    @Override public void drawColor(int color) { drawCalls++; }
+    @Override public void drawColor(int color, PorterDuff.Mode mode) { drawCalls++; }
+    @Override public void drawPaint(Paint paint) { drawCalls++; }
+    @Override public void drawRect(float l, float t, float r, float b, Paint paint) { drawCalls++; }
+    @Override public void drawRect(RectF rect, Paint paint) { drawCalls++; }
+    @Override public void drawRect(Rect r, Paint paint) { drawCalls++; }
+    @Override public void drawRoundRect(float l, float t, float r, float b, float rx, float ry, Paint paint) { drawCalls++; }
+    @Override public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) { drawCalls++; }
+    @Override public void drawOval(RectF oval, Paint paint) { drawCalls++; }
+    @Override public void drawCircle(float cx, float cy, float radius, Paint paint) { drawCalls++; }
+    @Override public void drawLine(float x0, float y0, float x1, float y1, Paint paint) { drawCalls++; }
+    @Override public void drawPath(Path path, Paint paint) { drawCalls++; }
+    @Override public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) { bitmap(bitmap); }
+    @Override public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) { bitmap(bitmap); }
+    @Override public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) { bitmap(bitmap); }
+    @Override public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) { bitmap(bitmap); }
+    @Override public void drawText(String text, float x, float y, Paint paint) { drawCalls++; }
+    @Override public void drawText(String text, int start, int end, float x, float y, Paint paint) { drawCalls++; }
+    @Override public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) { drawCalls++; }
+    @Override public void drawText(char[] text, int index, int count, float x, float y, Paint paint) { drawCalls++; }
+}
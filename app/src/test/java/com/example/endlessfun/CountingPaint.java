@@ -0,0 +1,33 @@
+package com.example.endlessfun;
+
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+
+/** Paint that counts state changes (each one can cost a native call / state flush on device). */
+class CountingPaint extends Paint {
+
+    int stateChanges;
+
+    CountingPaint() {
+        super(Paint.ANTI_ALIAS_FLAG);
+    }
+
+    void reset() {
+        stateChanges = 0;
+    }
+
+    @Override public void setColor(int color) { stateChanges++; super.setColor(color); }
+    @Override public void setAlpha(int a) { stateChanges++; super.setAlpha(a); }
+    @Override public void setStyle(Style style) { stateChanges++; super.setStyle(style); }
+    @Override public void setStrokeWidth(float width) { stateChanges++; super.setStrokeWidth(width); }
+    @Override public void setTextSize(float textSize) { stateChanges++; super.setTextSize(textSize); }
+    @Override public void setTextAlign(Align align) { stateChanges++; super.setTextAlign(align); }
+    @Override public void setShadowLayer(float radius, float dx, float dy, int shadowColor) {
+        stateChanges++;
+        super.setShadowLayer(radius, dx, dy, shadowColor);
+    }
+    @Override public ColorFilter setColorFilter(ColorFilter filter) {
+        stateChanges++;
+        return super.setColorFilter(filter);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.endlessfun;
+
+import static com.example.endlessfun.GameFixtures.newState;
+import static com.example.endlessfun.GameFixtures.shouldFlap;
+import static com.example.endlessfun.GameFixtures.snapshot;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Headless runs of GameState with a scripted player to check the adaptive difficulty: it
+ * eases off for a player who keeps getting hit, stays within its ranges and is part of the
+ * run snapshot.
+ */
+public class DifficultyTunerTest {
+
+    private static final int TICKS = 20_000;
+
+    @Test
+    public void strugglingPlayerGetsEasierRunAndFewerHits() {
+        for (long seed = 1; seed <= 4; seed++) {
+            Result fixed = play(seed, false);
+            Result adaptive = play(seed, true);
+            assertTrue("seed " + seed + " mean level " + adaptive.meanLevel, adaptive.meanLevel < -0.3);
+            assertTrue("seed " + seed + " hits " + adaptive.hits + " vs " + fixed.hits, adaptive.hits < fixed.hits);
+        }
+    }
+
+    @Test
+    public void goodStartRaisesLevel() {
+        double sum = 0;
+        for (long seed = 1; seed <= 8; seed++) {
+            GameState s = newRun(seed, true);
+            for (int t = 0; t < 2000 && !s.gameOver; t++) {
+                s.tick(shouldFlap(s));
+                sum += s.tuner.level;
+            }
+        }
+        double mean = sum / (8 * 2000);
+        assertTrue("mean level " + mean, mean > 0.1);
+    }
+
+    @Test
+    public void scalesStayInRange() {
+        GameState s = newRun(5, true);
+        DifficultyTuner d = s.tuner;
+        for (int t = 0; t < TICKS && !s.gameOver; t++) {
+            if (s.lives < 2) s.lives = GameState.LIVES_MAX;
+            s.tick(shouldFlap(s));
+            assertTrue(d.level >= -1 && d.level <= 1);
+            assertTrue(Math.abs(d.speedScale() - 1) <= d.speedRange + 1e-6f);
+            assertTrue(Math.abs(d.gapScale() - 1) <= d.gapRange + 1e-6f);
+            assertTrue(Math.abs(d.delayScale() - 1) <= d.delayRange + 1e-6f);
+            for (int i = 0; i < s.obstacleCount; i++) {
+                assertTrue(s.gapH[i] >= Math.min(GameState.MIN_GAP_HEIGHT, s.gapHeight) - 1e-3f);
+            }
+        }
+    }
+
+    @Test
+    public void disabledLeavesDifficultyAlone() {
+        GameState s = newRun(7, false);
+        for (int t = 0; t < 5000 && !s.gameOver; t++) {
+            s.tick(shouldFlap(s));
+            assertEquals(0f, s.tuner.level, 0f);
+            assertEquals(1f, s.tuner.speedScale(), 0f);
+            assertEquals(1f, s.tuner.gapScale(), 0f);
+            assertEquals(1f, s.tuner.delayScale(), 0f);
+        }
+    }
+
+    @Test
+    public void snapshotKeepsTunerAndRunDeterministic() {
+        GameState a = newRun(11, true);
+        for (int t = 0; t < 2000; t++) {
+            a.lives = GameState.LIVES_MAX;
+            a.tick(shouldFlap(a));
+        }
+        ByteBuffer buf = ByteBuffer.allocate(GameState.SNAPSHOT_MAX_BYTES);
+        a.writeTo(buf);
+        buf.flip();
+        GameState b = newRun(0, false);
+        assertTrue(b.readFrom(buf));
+        assertEquals(a.tuner.enabled, b.tuner.enabled);
+        assertEquals(a.tuner.level, b.tuner.level, 0f);
+        for (int t = 0; t < 2000; t++) {
+            a.lives = b.lives = GameState.LIVES_MAX;
+            boolean flap = shouldFlap(a);
+            assertEquals(a.tick(flap), b.tick(flap));
+        }
+        assertArrayEquals(snapshot(a), snapshot(b));
+    }
+
+    @Test
+    public void rewindKeepsWhatTheTunerLearnedFromTheHit() {
+        GameState s = newRun(5, true);
+        RewindBuffer rewind = new RewindBuffer();
+        int events = 0;
+        for (int t = 0; t < 20_000 && (events & GameState.EVENT_HIT) == 0; t++) {
+            s.lives = GameState.LIVES_MAX;
+            rewind.push(s);
+            events = s.tick(shouldFlap(s));
+        }
+        assertTrue("no hit", (events & GameState.EVENT_HIT) != 0);
+        DifficultyTuner afterHit = new DifficultyTuner();
+        afterHit.copyFrom(s.tuner);
+        assertEquals(0, afterHit.ticksThisLife);
+
+        int score = s.score;
+        for (int i = 0; i < 100; i++) assertTrue(rewind.pop(s));
+        assertTrue(s.score <= score);  // the run itself went back
+        assertEquals(afterHit.level, s.tuner.level, 0f);
+        assertEquals(afterHit.lifeAvg, s.tuner.lifeAvg, 0f);
+        assertEquals(afterHit.ticksThisLife, s.tuner.ticksThisLife);
+    }
+
+    private static final class Result {
+        int hits;
+        double meanLevel;
+    }
+
+    /** Plays TICKS ticks, topping up lives so the run doesn't end. */
+    private static Result play(long seed, boolean adaptive) {
+        GameState s = newRun(seed, adaptive);
+        Result r = new Result();
+        double levelSum = 0;
+        for (int t = 0; t < TICKS; t++) {
+            if (s.lives < 2) s.lives = GameState.LIVES_MAX;
+            if ((s.tick(shouldFlap(s)) & GameState.EVENT_HIT) != 0) r.hits++;
+            levelSum += s.tuner.level;
+        }
+        r.meanLevel = levelSum / TICKS;
+        return r;
+    }
+
+    private static GameState newRun(long seed, boolean adaptive) {
+        GameState s = newState();
+        s.setAdaptiveDifficulty(adaptive);
+        s.reset(seed, 90, 0);
+        return s;
+    }
+
+
+}
@@ -0,0 +1,52 @@
+package com.example.endlessfun;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Game states and a scripted player shared by the unit tests and the JMH benchmarks (which
+ * compile this file into their main source set): a 1080x2340 screen with GameView's sprite
+ * scaling. No JUnit here, so the benchmarks can use it.
+ */
+final class GameFixtures {
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 2340;
+    static final int PLAYER_W = WIDTH / 8;
+    static final int PLAYER_H = HEIGHT / 18;
+
+    private GameFixtures() {}
+
+    /** A GameState sized for the fixture screen, not yet reset. */
+    static GameState newState() {
+        GameState s = new GameState();
+        s.setScreen(WIDTH, HEIGHT, PLAYER_W, PLAYER_H);
+        return s;
+    }
+
+    /** A fresh run (countdown still ahead) with the default difficulty. */
+    static GameState newRun(long seed) {
+        GameState s = newState();
+        s.reset(seed, 90, 0);
+        return s;
+    }
+
+    /** Simple scripted player: flap when falling below the next gap's center. */
+    static boolean shouldFlap(GameState s) {
+        float target = s.height / 2f;
+        for (int i = 0; i < s.obstacleCount; i++) {
+            if (s.obstX[i] + s.obstWidth[i] >= s.playerX - s.playerW / 2f) {
+                target = s.gapCenterY[i] + s.gapH[i] / 6f;
+                break;
+            }
+        }
+        return s.velocityY > 0 && s.playerY > target;
+    }
+
+    /** s.writeTo() as a byte array. */
+    static byte[] snapshot(GameState s) {
+        ByteBuffer buf = ByteBuffer.allocate(GameState.SNAPSHOT_MAX_BYTES);
+        s.writeTo(buf);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+}
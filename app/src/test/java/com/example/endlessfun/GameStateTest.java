@@ -0,0 +1,91 @@
+package com.example.endlessfun;
+
+import static com.example.endlessfun.GameFixtures.newState;
+import static com.example.endlessfun.GameFixtures.shouldFlap;
+import static com.example.endlessfun.GameFixtures.snapshot;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** The run snapshot (writeTo / readFrom) that survives process death. */
+public class GameStateTest {
+
+    @Test
+    public void snapshotRoundTripContinuesTheSameRun() {
+        GameState a = midRun(3);
+        byte[] saved = snapshot(a);
+        assertTrue(saved.length <= GameState.SNAPSHOT_MAX_BYTES);
+
+        GameState b = newState();
+        assertTrue(b.readFrom(ByteBuffer.wrap(saved)));
+        assertArrayEquals(saved, snapshot(b));
+        assertEquals(a.score, b.score);
+        assertEquals(a.lives, b.lives);
+        assertEquals(a.obstacleCount, b.obstacleCount);
+        assertEquals(a.playerY, b.playerY, 0f);
+        assertArrayEquals(Arrays.copyOf(a.gapCenterY, a.obstacleCount), Arrays.copyOf(b.gapCenterY, b.obstacleCount), 0f);
+
+        for (int t = 0; t < 1500; t++) {
+            a.lives = b.lives = GameState.LIVES_MAX;
+            boolean flap = shouldFlap(a);
+            assertEquals("tick " + t, a.tick(flap), b.tick(flap));
+        }
+        assertArrayEquals(snapshot(a), snapshot(b));
+    }
+
+    @Test
+    public void otherVersionIsRejectedAndStateUntouched() {
+        byte[] saved = snapshot(midRun(5));
+        saved[0] = (byte) (GameState.SNAPSHOT_VERSION - 1);
+        GameState b = midRun(9);
+        byte[] before = snapshot(b);
+        assertFalse(b.readFrom(ByteBuffer.wrap(saved)));
+        assertArrayEquals(before, snapshot(b));
+    }
+
+    @Test
+    public void truncatedSnapshotIsRejectedAndStateUntouched() {
+        byte[] saved = snapshot(midRun(5));
+        GameState b = midRun(9);
+        byte[] before = snapshot(b);
+        for (int len : new int[] { 0, 1, 40, saved.length - 26, saved.length - 1 }) {
+            assertFalse("length " + len, b.readFrom(ByteBuffer.wrap(Arrays.copyOf(saved, len))));
+            assertArrayEquals("length " + len, before, snapshot(b));
+        }
+    }
+
+    @Test
+    public void readFromConsumesExactlyOneSnapshot() {
+        byte[] first = snapshot(midRun(5));
+        byte[] second = snapshot(midRun(6));
+        ByteBuffer both = ByteBuffer.allocate(first.length + second.length).put(first).put(second);
+        both.flip();
+        GameState b = newState();
+        assertTrue(b.readFrom(both));
+        assertEquals(first.length, both.position());
+        assertTrue(b.readFrom(both));
+        assertArrayEquals(second, snapshot(b));
+    }
+
+
+    /** A few hundred ticks in: past the countdown, pipes on screen, a life lost. */
+    private static GameState midRun(long seed) {
+        GameState s = newState();
+        s.reset(seed, 90, 7);
+        for (int t = 0; t < 600; t++) {
+            s.lives = GameState.LIVES_MAX;
+            s.tick(shouldFlap(s));
+        }
+        s.lives = 2;
+        assertTrue(!s.gameOver && s.obstacleCount > 0);
+        return s;
+    }
+
+
+}
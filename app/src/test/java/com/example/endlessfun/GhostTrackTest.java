@@ -0,0 +1,142 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class GhostTrackTest {
+
+    private static final int HEIGHT = 2340;
+
+    /** A bird path with small, large, negative and zero deltas. */
+    private static float y(int tick) {
+        if (tick % 97 == 0) return tick % 2 == 0 ? 40 : HEIGHT - 40;  // jumps across the screen
+        return HEIGHT / 2f + 600 * (float) Math.sin(tick / 15.0) + (tick % 7 == 0 ? 0.4f : 0);
+    }
+
+    private static GhostTrack record(int ticks) {
+        GhostTrack t = new GhostTrack();
+        t.startRecording(HEIGHT);
+        for (int i = 0; i < ticks; i++) t.record(y(i));
+        return t;
+    }
+
+    private static float[] play(byte[] data, int screenHeight) {
+        GhostTrack t = new GhostTrack();
+        assertTrue(t.load(data, screenHeight));
+        float[] out = new float[data.length];  // at least one byte per tick
+        int n = 0;
+        while (t.hasNext()) out[n++] = t.next();
+        return Arrays.copyOf(out, n);
+    }
+
+    @Test
+    public void roundTripKeepsEveryTick() {
+        GhostTrack t = record(3000);
+        assertEquals(3000, t.getRecordedTicks());
+        float[] ys = play(t.toBytes(), HEIGHT);
+        assertEquals(3000, ys.length);
+        for (int i = 0; i < ys.length; i++) assertEquals("tick " + i, Math.round(y(i)), ys[i], 0f);
+    }
+
+    @Test
+    public void playbackScalesToScreenHeight() {
+        float[] ys = play(record(200).toBytes(), HEIGHT / 2);
+        for (int i = 0; i < ys.length; i++) assertEquals(Math.round(y(i)) / 2f, ys[i], 1e-3f);
+    }
+
+    @Test
+    public void loadRejectsBadData() {
+        GhostTrack t = new GhostTrack();
+        byte[] good = record(100).toBytes();
+        assertFalse(t.load(null, HEIGHT));
+        assertFalse(t.load(new byte[0], HEIGHT));
+        byte[] wrongVersion = good.clone();
+        wrongVersion[0] = 99;
+        assertFalse(t.load(wrongVersion, HEIGHT));
+        assertFalse(t.load(Arrays.copyOf(good, good.length - 1), HEIGHT));  // one tick short of the count
+        byte[] cutVarint = Arrays.copyOf(good, good.length + 1);
+        cutVarint[good.length] = (byte) 0x80;  // unterminated varint
+        assertFalse(t.load(cutVarint, HEIGHT));
+        assertFalse(t.hasNext());
+        assertNull(t.getPlaybackData());
+    }
+
+    @Test
+    public void truncateThenContinueMatchesStraightRecording() {
+        GhostTrack t = record(500);
+        t.truncateRecording(320);
+        assertEquals(320, t.getRecordedTicks());
+        for (int i = 320; i < 700; i++) t.record(y(i));
+        assertArrayEquals(record(700).toBytes(), t.toBytes());
+    }
+
+    @Test
+    public void skipToAndRestoreRecording() {
+        byte[] data = record(400).toBytes();
+        GhostTrack p = new GhostTrack();
+        p.load(data, HEIGHT);
+        p.skipTo(250);
+        assertEquals(250, p.getPlaybackIndex());
+        assertEquals(Math.round(y(250)), p.next(), 0f);
+
+        GhostTrack r = new GhostTrack();
+        r.restoreRecording(data, 400);
+        assertEquals(400, r.getRecordedTicks());
+        for (int i = 400; i < 600; i++) r.record(y(i));
+        assertArrayEquals(record(600).toBytes(), r.toBytes());
+    }
+
+    @Test
+    public void skipToStepsBackFromWhereItIs() {
+        GhostTrack p = new GhostTrack();
+        p.load(record(1000).toBytes(), HEIGHT);
+        p.skipTo(1500);  // run past the end of the ghost
+        assertEquals(1000, p.getPlaybackIndex());
+        assertFalse(p.hasNext());
+        p.skipTo(1400);  // rewound, still past the end
+        assertFalse(p.hasNext());
+        p.skipTo(900);
+        assertEquals(900, p.getPlaybackIndex());
+        assertEquals(Math.round(y(900)), p.next(), 0f);
+        p.skipTo(12);
+        assertEquals(Math.round(y(12)), p.next(), 0f);
+        p.skipTo(0);
+        assertEquals(Math.round(y(0)), p.next(), 0f);
+    }
+
+    @Test
+    public void fullBufferKeepsCountingTicks() {
+        GhostTrack t = new GhostTrack();
+        t.startRecording(HEIGHT);
+        int ticks = GhostTrack.RECORD_BYTES;  // every tick below needs 2 bytes, so the buffer fills halfway
+        for (int i = 0; i < ticks; i++) t.record(i % 2 == 0 ? 100 : 1000);
+        assertEquals(ticks, t.getRecordedTicks());
+        byte[] data = t.toBytes();
+        assertTrue(data.length <= GhostTrack.RECORD_BYTES + 11);
+        float[] ys = play(data, HEIGHT);
+        assertTrue(ys.length < ticks);
+        for (int i = 0; i < ys.length; i++) assertEquals(i % 2 == 0 ? 100 : 1000, ys[i], 0f);
+
+        GhostTrack restored = new GhostTrack();  // process death with a full buffer
+        restored.restoreRecording(data, t.getRecordedTicks());
+        assertEquals(ticks, restored.getRecordedTicks());
+        assertArrayEquals(data, restored.toBytes());
+        restored.record(500);  // still full: counts, doesn't store
+        assertEquals(ticks + 1, restored.getRecordedTicks());
+        assertArrayEquals(data, restored.toBytes());
+
+        t.truncateRecording(ys.length - 10);  // rewound below the cap: recording resumes there
+        assertEquals(ys.length - 10, t.getRecordedTicks());
+        t.record(500);
+        float[] resumed = play(t.toBytes(), HEIGHT);
+        assertEquals(ys.length - 9, resumed.length);
+        assertEquals(500, resumed[resumed.length - 1], 0f);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyStatsTest {
+
+    @Test
+    public void keepsCountAverageMinAndMax() {
+        LatencyStats s = new LatencyStats();
+        assertEquals(0, s.getCount());
+        assertEquals(0f, s.getAverageMs(), 0f);
+        assertEquals(0, s.getMinMs());
+        for (long ms : new long[] { 40, 16, 33, 51 }) s.add(ms);
+        assertEquals(4, s.getCount());
+        assertEquals(35f, s.getAverageMs(), 1e-6f);
+        assertEquals(16, s.getMinMs());
+        assertEquals(51, s.getMaxMs());
+
+        s.reset();
+        assertEquals(0, s.getCount());
+        assertEquals(0, s.getMaxMs());
+        s.add(20);
+        assertEquals(20, s.getMinMs());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class ObstaclePatternsTest {
+
+    @Test
+    public void parseErrorsNameTheLine() {
+        String ok = "# header\n\nsingle 0 - 1 r 1 1 -\n";
+        assertParseError(ok + "bad 0 - 1 r 1 1 x\n", "line 4", "unknown flag 'x'");
+        assertParseError(ok + "bad 0 -\n", "line 4", "expected name");
+        assertParseError(ok + "bad 0 - 1 r 1 1 - | 0.5 1\n", "line 4", "step 2");
+        assertParseError(ok + "bad 0 - 1 1.5 1 1 -\n", "line 4", "position must be 0..1");
+        assertParseError(ok + "bad 5 4 1 r 1 1 -\n", "line 4", "maxScore < minScore");
+        assertParseError(ok + "bad 0 - 0 r 1 1 -\n", "line 4", "weight must be > 0");
+        assertParseError(ok + "bad 0 - 1 r 0 1 -\n", "line 4", "gapScale and delayScale");
+        assertParseError(ok + "bad 0 20000 1 r 1 1 -\n", "line 4", "score out of range");
+        assertParseError(ok + "bad 0 - one r 1 1 -\n", "line 4", "one");
+        assertParseError("# only comments\n", null, "no obstacle patterns");
+    }
+
+    @Test
+    public void everyScoreMustBeCovered() {
+        assertParseError("a 0 4 1 r 1 1 -\nb 6 - 1 r 1 1 -\n", null, "no pattern for score 5 to 5");
+        assertParseError("a 0 4 1 r 1 1 -\n", null, "no pattern for score 5 and up");
+        assertParseError("a 2 - 1 r 1 1 -\n", null, "no pattern for score 0 to 1");
+    }
+
+    @Test
+    public void aliasTableFollowsTheWeights() {
+        ObstaclePatterns p = ObstaclePatterns.parse(
+                "early 0 9 1 r 1 1 -\n"
+                + "a 10 - 1 r 1 1 -\n"
+                + "b 10 - 2 r 1 1 -\n"
+                + "c 10 - 7 r 1 1 -\n"
+                + "late 20 - 10 r 1 1 -\n");
+        int n = 100_000;
+        assertArrayEquals(new int[] { n, 0, 0, 0, 0 }, counts(p, 5, n));
+        int[] mid = counts(p, 15, n);
+        assertEquals(0, mid[0]);
+        assertEquals(n / 10, mid[1], n / 200);
+        assertEquals(2 * n / 10, mid[2], n / 200);
+        assertEquals(7 * n / 10, mid[3], n / 200);
+        assertEquals(0, mid[4]);
+        int[] late = counts(p, 50_000, n);  // above MAX_SCORE: last band
+        assertEquals(n / 20, late[1], n / 200);
+        assertEquals(2 * n / 20, late[2], n / 200);
+        assertEquals(7 * n / 20, late[3], n / 200);
+        assertEquals(n / 2, late[4], n / 200);
+    }
+
+    @Test
+    public void relativePositionsAreClamped() {
+        GameState s = started("steps 0 - 1 0.9 1 1 - | +0.5 1 1 - | -1.5 1 1 - | +0.25 1 1 -\n");
+        float[] expected = { 0.9f, 1f, 0f, 0.25f, 0.9f, 1f, 0f };  // the pattern twice
+        for (float pos : expected) {
+            tickUntilSpawn(s);
+            assertEquals(pos, s.lastGapPos, 1e-6f);
+        }
+        assertEquals(GameState.GAP_MARGIN, s.gapTop(s.obstacleCount - 1), 1e-3f);  // 0 = top of the range
+    }
+
+    @Test
+    public void builtInTableMatchesTheOriginalRule() {
+        GameState s = started(ObstaclePatterns.BUILT_IN);
+        for (int i = 0; i < 3; i++) {
+            s.score = i;
+            tickUntilSpawn(s);
+            assertWarmup(s, true);
+        }
+        for (int i = 0; i < 20; i++) {
+            tickUntilSpawn(s);
+            assertWarmup(s, false);
+        }
+    }
+
+    @Test
+    public void patternIsPickedWithTheScoreAtItsFirstPipe() {
+        GameState s = started(ObstaclePatterns.BUILT_IN);
+        s.score = 2;
+        tickUntilSpawn(s);
+        assertWarmup(s, true);
+        hold(s);
+        s.tick(false);  // the tick after a spawn: too early to pick the next pattern
+        s.score = 3;    // ... so the next pipe sees the new score
+        tickUntilSpawn(s);
+        assertWarmup(s, false);
+    }
+
+    private static void assertParseError(String text, String line, String message) {
+        try {
+            ObstaclePatterns.parse(text);
+            fail("parsed: " + text);
+        } catch (IllegalArgumentException e) {
+            if (line != null) assertTrue(e.getMessage(), e.getMessage().contains(line + ": "));
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    /** How often each pattern is chosen over n evenly spaced u in [0, 1). */
+    private static int[] counts(ObstaclePatterns p, int score, int n) {
+        int[] c = new int[p.size()];
+        for (int i = 0; i < n; i++) c[p.choose(score, (i + 0.5f) / n)]++;
+        return c;
+    }
+
+    private static GameState started(String patterns) {
+        GameState s = GameFixtures.newState();
+        s.setPatterns(ObstaclePatterns.parse(patterns));
+        s.reset(11, 90, 0);
+        while (s.countdownActive) s.tick(false);
+        return s;
+    }
+
+    /** Keeps the bird alive mid-screen so only the spawner matters. */
+    private static void hold(GameState s) {
+        s.playerY = s.height / 2f;
+        s.velocityY = 0;
+        s.lives = GameState.LIVES_MAX;
+    }
+
+    private static void tickUntilSpawn(GameState s) {
+        for (int t = 0; t < 1000; t++) {
+            hold(s);
+            s.tick(false);
+            assertFalse(s.gameOver);
+            if (s.spawnTimer == 0) return;
+        }
+        fail("no pipe spawned");
+    }
+
+    private static void assertWarmup(GameState s, boolean warmup) {
+        int i = s.obstacleCount - 1;
+        assertEquals(warmup ? GameState.SLOW_PIPE_SPEED : 1f, s.speedMult[i], 0f);
+        assertEquals(s.gapHeight * (warmup ? 1.3f : 1f), s.gapH[i], 1e-3f);
+        if (warmup) assertFalse(s.movingGap[i]);
+    }
+}
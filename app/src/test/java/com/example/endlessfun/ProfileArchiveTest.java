@@ -0,0 +1,153 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProfileArchiveTest {
+
+    private static final int DAYS = 10_000;
+
+    /** Generated rows served in pages, like StatsDao.getPage. */
+    private static List<StatsRollup> page(int afterDay, int limit) {
+        List<StatsRollup> out = new ArrayList<>();
+        for (int day = Math.max(afterDay + 1, StatsRollup.LIFETIME); day < DAYS && out.size() < limit; day++) {
+            out.add(row(day));
+        }
+        return out;
+    }
+
+    private static StatsRollup row(int day) {
+        StatsRollup r = new StatsRollup();
+        r.day = day;
+        r.runs = day % 17 + 1;
+        r.pipes = day * 31L;
+        r.jumps = day * 97L;
+        r.bronze = day % 3;
+        r.silver = day % 5;
+        r.gold = day % 7;
+        r.platinum = day % 11;
+        ScoreHistogram h = new ScoreHistogram();
+        for (int i = 0; i < r.runs; i++) h.add((day + i * 13) % 120);
+        r.histogram = h.toBytes();
+        return r;
+    }
+
+    private static ProfileArchive.Settings settings() {
+        ProfileArchive.Settings s = new ProfileArchive.Settings();
+        s.selectedBird = 3;
+        s.selectedBackground = 4;
+        s.unlockedBirds.addAll(Arrays.asList(0, 1, 2, 3));
+        s.achievements.addAll(Arrays.asList("first_run", "clean_run"));
+        s.rewind = true;
+        s.adaptiveDifficulty = true;
+        return s;
+    }
+
+    private static byte[] export(HighScore hs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProfileArchive.write(Channels.newChannel(bytes), settings(), hs, ProfileArchiveTest::page);
+        return bytes.toByteArray();
+    }
+
+    private static final class Collected implements ProfileArchive.Sink {
+        ProfileArchive.Settings settings;
+        HighScore highScore;
+        final List<StatsRollup> stats = new ArrayList<>();
+        int batches;
+
+        @Override
+        public void settings(ProfileArchive.Settings s) {
+            settings = s;
+        }
+
+        @Override
+        public void highScore(HighScore hs) {
+            highScore = hs;
+        }
+
+        @Override
+        public void stats(List<StatsRollup> batch) {
+            assertTrue(batch.size() <= ProfileArchive.PAGE_ROWS);
+            stats.addAll(batch);
+            batches++;
+        }
+    }
+
+    private static Collected read(byte[] data) throws IOException {
+        Collected c = new Collected();
+        ProfileArchive.read(Channels.newChannel(new ByteArrayInputStream(data)), c);
+        return c;
+    }
+
+    @Test
+    public void roundTripKeepsEverything() throws IOException {
+        HighScore hs = new HighScore();
+        hs.score = 77;
+        hs.ghost = new byte[] { 1, 2, 3, 4, 5 };
+        Collected c = read(export(hs));
+
+        assertEquals(3, c.settings.selectedBird);
+        assertEquals(4, c.settings.selectedBackground);
+        assertEquals(settings().unlockedBirds, c.settings.unlockedBirds);
+        assertEquals(settings().achievements, c.settings.achievements);
+        assertTrue(c.settings.rewind && c.settings.adaptiveDifficulty && !c.settings.ghost && !c.settings.autopilot);
+        assertEquals(77, c.highScore.score);
+        assertArrayEquals(hs.ghost, c.highScore.ghost);
+
+        assertEquals(DAYS + 1, c.stats.size());  // plus the LIFETIME row
+        assertEquals((DAYS + 1 + ProfileArchive.PAGE_ROWS - 1) / ProfileArchive.PAGE_ROWS, c.batches);
+        for (StatsRollup r : c.stats) {
+            StatsRollup e = row(r.day);
+            assertEquals(e.runs, r.runs);
+            assertEquals(e.pipes, r.pipes);
+            assertEquals(e.jumps, r.jumps);
+            assertEquals(e.platinum, r.platinum);
+            assertArrayEquals(e.histogram, r.histogram);
+        }
+    }
+
+    @Test
+    public void noHighScoreAndNullGhost() throws IOException {
+        assertNull(read(export(null)).highScore);
+        HighScore hs = new HighScore();
+        hs.score = 5;
+        assertNull(read(export(hs)).highScore.ghost);
+    }
+
+    @Test
+    public void compressesHistory() throws IOException {
+        byte[] data = export(null);
+        assertTrue("bytes " + data.length, data.length < DAYS * 20);
+    }
+
+    @Test
+    public void rejectsDamagedFiles() throws IOException {
+        byte[] good = export(null);
+        byte[] wrongMagic = good.clone();
+        wrongMagic[0] ^= 1;
+        byte[] truncated = Arrays.copyOf(good, good.length / 2);
+        byte[] flipped = good.clone();
+        flipped[good.length / 2] ^= 0x10;
+        for (byte[] bad : new byte[][] { wrongMagic, truncated, flipped, new byte[0] }) {
+            try {
+                read(bad);
+                fail("read a damaged archive");
+            } catch (IOException expected) {
+                // ok
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.endlessfun;
+
+import static com.example.endlessfun.GameFixtures.HEIGHT;
+import static com.example.endlessfun.GameFixtures.WIDTH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Render-cost regression suite: draws scripted game states through GameView.onDraw into a
+ * counting Canvas. A steady frame must cost the same every time (draw calls, Paint state
+ * changes and the bitmap instances drawn match the first measured frame), must not allocate
+ * once warmed up, and the medals must come from one cached bitmap per size. The counts are
+ * printed rather than gated on fixed budgets; pin budgets here only once they have been
+ * measured under Robolectric. The allocation check needs a HotSpot JVM and is skipped elsewhere.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class RenderBudgetTest {
+
+    private static final int WARMUP_FRAMES = 10;
+    private static final int MEASURED_FRAMES = 50;
+    private static final int MEDAL_HUD_PX = 36;
+    private static final int MEDAL_GAME_OVER_PX = 64;
+
+    private GameView view;
+    private GameState state;
+    private final CountingCanvas canvas = new CountingCanvas();
+    private final CountingPaint paint = new CountingPaint();
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        view = new GameView(context, null, paint);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        state = view.getState();
+    }
+
+    @Test
+    public void midRunFrameIsSteady() {
+        scriptMidRun();
+        assertSteady("mid-run");
+    }
+
+    @Test
+    public void countdownFrameIsSteady() {
+        state.reset(42, 90, 0);
+        for (int i = 0; i < 10; i++) state.tick(false);
+        assertSteady("countdown");
+    }
+
+    @Test
+    public void gameOverWithMedalFrameIsSteady() {
+        scriptMidRun();
+        state.score = 30;  // silver medal + "New record!"
+        state.initialHighScore = 5;
+        state.gameOver = true;
+        assertSteady("game over");
+        assertDrawsBitmapOfSize(MEDAL_HUD_PX);
+        assertDrawsBitmapOfSize(MEDAL_GAME_OVER_PX);
+    }
+
+    @Test
+    public void pausedFrameIsSteady() {
+        scriptMidRun();
+        view.pauseGame();
+        assertSteady("paused");
+    }
+
+    /** Two pipes on screen, bird alive, score high enough for a medal in the HUD. */
+    private void scriptMidRun() {
+        long seed = 42;
+        state.reset(seed, 90, 0);
+        while (state.countdownActive || state.obstacleCount < 2) {
+            state.tick(state.velocityY > 0 && state.playerY > HEIGHT / 2f);
+            if (state.gameOver) state.reset(++seed, 90, 0);
+        }
+        state.score = 12;
+    }
+
+    private void assertSteady(String name) {
+        for (int i = 0; i < WARMUP_FRAMES; i++) drawFrame();
+        int drawCalls = canvas.drawCalls;
+        int paintChanges = paint.stateChanges;
+        int bitmapCount = Math.min(canvas.bitmapCount, CountingCanvas.MAX_BITMAPS);
+        Bitmap[] bitmaps = new Bitmap[bitmapCount];
+        System.arraycopy(canvas.bitmaps, 0, bitmaps, 0, bitmapCount);
+        long probe = allocatedBytes();
+        long overhead = allocatedBytes() - probe;  // what reading the counter allocates
+        long before = allocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            drawFrame();
+            boolean same = canvas.drawCalls == drawCalls && paint.stateChanges == paintChanges
+                    && canvas.bitmapCount == bitmapCount;
+            for (int j = 0; same && j < bitmapCount; j++) same = canvas.bitmaps[j] == bitmaps[j];
+            if (!same) {
+                fail(name + " frame " + i + " differs from the first: drawCalls=" + canvas.drawCalls + "/" + drawCalls
+                        + " paintChanges=" + paint.stateChanges + "/" + paintChanges
+                        + " bitmaps=" + canvas.bitmapCount + "/" + bitmapCount + " (or a bitmap was re-created)");
+            }
+        }
+        long after = allocatedBytes();
+        long bytes = before < 0 ? -1 : Math.max(0, after - before - overhead);
+
+        System.out.println("RenderBudgetTest " + name + ": drawCalls=" + drawCalls
+                + " paintChanges=" + paintChanges + " bitmaps=" + bitmapCount
+                + " allocBytes=" + (bytes < 0 ? "n/a" : bytes + "/" + MEASURED_FRAMES + " frames"));
+        if (bytes >= 0) assertEquals(name + " allocated in steady frames", 0, bytes);
+    }
+
+    private void assertDrawsBitmapOfSize(int px) {
+        drawFrame();
+        int n = Math.min(canvas.bitmapCount, CountingCanvas.MAX_BITMAPS);
+        for (int i = 0; i < n; i++) {
+            Bitmap b = canvas.bitmaps[i];
+            if (b.getWidth() == px && b.getHeight() == px) return;
+        }
+        fail("no " + px + " px bitmap drawn");
+    }
+
+    private void drawFrame() {
+        canvas.reset();
+        paint.reset();
+        view.onDraw(canvas);
+    }
+
+    /** Bytes allocated so far by this thread, or -1 when the JVM can't tell (not HotSpot). */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
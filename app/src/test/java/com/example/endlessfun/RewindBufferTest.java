@@ -0,0 +1,90 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RewindBufferTest {
+
+    @Test
+    public void popRestoresPushedStatesNewestFirst() {
+        GameState s = newRun(4);
+        RewindBuffer buf = new RewindBuffer();
+        byte[][] pushed = new byte[40][];
+        for (int t = 0; t < pushed.length; t++) {
+            pushed[t] = snapshot(s);
+            buf.push(s);
+            tick(s);
+        }
+        assertEquals(pushed.length, buf.size());
+        GameState out = newRun(99);
+        for (int t = pushed.length - 1; t >= 0; t--) {
+            assertTrue(buf.pop(out));
+            assertArrayEquals("tick " + t, pushed[t], snapshot(out));
+        }
+        assertEquals(0, buf.size());
+        assertFalse(buf.pop(out));
+    }
+
+    @Test
+    public void ringKeepsOnlyTheNewestCapacityTicks() {
+        GameState s = newRun(6);
+        RewindBuffer buf = new RewindBuffer();
+        int total = RewindBuffer.CAPACITY_TICKS * 2 + 17;
+        byte[][] pushed = new byte[total][];
+        for (int t = 0; t < total; t++) {
+            pushed[t] = snapshot(s);
+            buf.push(s);
+            tick(s);
+        }
+        assertEquals(RewindBuffer.CAPACITY_TICKS, buf.size());
+        GameState out = newRun(99);
+        for (int t = total - 1; t >= total - RewindBuffer.CAPACITY_TICKS; t--) {
+            assertTrue(buf.pop(out));
+            assertArrayEquals("tick " + t, pushed[t], snapshot(out));
+        }
+        assertFalse(buf.pop(out));
+
+        // Pushing again after popping reuses the slots in order
+        buf.push(s);
+        assertTrue(buf.pop(out));
+        assertArrayEquals(snapshot(s), snapshot(out));
+    }
+
+    @Test
+    public void fullSnapshotFitsItsSlot() {
+        GameState s = newRun(1);
+        while (s.obstacleCount < GameState.MAX_OBSTACLES) s.obstacleCount++;  // every obstacle slot in use
+        RewindBuffer buf = new RewindBuffer();
+        buf.push(s);
+        buf.push(newRun(2));
+        GameState out = newRun(99);
+        assertTrue(buf.pop(out));
+        assertTrue(buf.pop(out));
+        assertArrayEquals(snapshot(s), snapshot(out));
+    }
+
+    private static GameState newRun(long seed) {
+        GameState s = GameFixtures.newRun(seed);
+        for (int t = 0; t < 300; t++) tick(s);
+        return s;
+    }
+
+    private static void tick(GameState s) {
+        s.lives = GameState.LIVES_MAX;
+        s.tick(s.velocityY > 0 && s.playerY > s.height / 2f);
+    }
+
+    /** The snapshot with a neutral tuner: pop() keeps the target's own tuner (see DifficultyTunerTest). */
+    private static byte[] snapshot(GameState s) {
+        DifficultyTuner own = new DifficultyTuner();
+        own.copyFrom(s.tuner);
+        s.tuner.reset(false);
+        byte[] b = GameFixtures.snapshot(s);
+        s.tuner.copyFrom(own);
+        return b;
+    }
+}
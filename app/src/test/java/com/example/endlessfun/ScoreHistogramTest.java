@@ -0,0 +1,65 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ScoreHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryScoreInOrder() {
+        int last = -1;
+        for (int b = 0; b < ScoreHistogram.BUCKETS; b++) {
+            int low = ScoreHistogram.bucketLow(b);
+            assertTrue(low > last);
+            assertEquals(b, ScoreHistogram.bucketOf(low));
+            last = low;
+        }
+        assertEquals(ScoreHistogram.BUCKETS - 1, ScoreHistogram.bucketOf(Integer.MAX_VALUE));
+        assertEquals(0, ScoreHistogram.bucketOf(-5));
+    }
+
+    @Test
+    public void percentilesExactForSmallScores() {
+        ScoreHistogram h = new ScoreHistogram();
+        for (int s = 1; s <= 9; s++) h.add(s);
+        assertEquals(9, h.count());
+        assertEquals(5, h.percentile(0.5));
+        assertEquals(1, h.percentile(0));
+        assertEquals(9, h.percentile(1));
+    }
+
+    @Test
+    public void percentilesWithinBucketWidthForLargeScores() {
+        Random random = new Random(7);
+        int[] scores = new int[100_000];
+        ScoreHistogram h = new ScoreHistogram();
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = (int) Math.abs(random.nextGaussian() * 400);
+            h.add(scores[i]);
+        }
+        Arrays.sort(scores);
+        for (double p : new double[] { 0.1, 0.5, 0.9, 0.99 }) {
+            int exact = scores[(int) Math.ceil(p * scores.length) - 1];
+            int approx = h.percentile(p);
+            assertTrue(p + ": " + approx + " vs " + exact, approx <= exact && exact - approx <= exact / 8);
+        }
+    }
+
+    @Test
+    public void roundTripIsCompact() {
+        ScoreHistogram h = new ScoreHistogram();
+        for (int i = 0; i < 100_000; i++) h.add(i % 150);
+        byte[] data = h.toBytes();
+        assertTrue("bytes " + data.length, data.length < 400);
+        ScoreHistogram back = ScoreHistogram.fromBytes(data);
+        assertEquals(h.count(), back.count());
+        for (double p = 0; p <= 1; p += 0.05) assertEquals(h.percentile(p), back.percentile(p));
+        assertEquals(0, ScoreHistogram.fromBytes(null).count());
+        assertEquals(0, ScoreHistogram.fromBytes(new byte[0]).percentile(0.5));
+    }
+}
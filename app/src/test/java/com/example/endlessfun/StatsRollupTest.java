@@ -0,0 +1,44 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class StatsRollupTest {
+
+    @Test
+    public void addRunCountsTotalsMedalsAndHistogram() {
+        StatsRollup r = new StatsRollup();
+        int[] scores = { 0, 9, 10, 24, 25, 49, 50, 99, 100, 250 };
+        for (int i = 0; i < scores.length; i++) r.addRun(scores[i], i * 3);
+
+        assertEquals(scores.length, r.runs);
+        assertEquals(616, r.pipes);
+        assertEquals(135, r.jumps);
+        assertEquals(61.6, r.averageScore(), 1e-9);
+        assertEquals(2, r.bronze);    // 10, 24
+        assertEquals(2, r.silver);    // 25, 49
+        assertEquals(2, r.gold);      // 50, 99
+        assertEquals(2, r.platinum);  // 100, 250
+
+        ScoreHistogram h = ScoreHistogram.fromBytes(r.histogram);
+        assertEquals(scores.length, h.count());
+        assertEquals(0, h.percentile(0));
+        assertEquals(25, h.percentile(0.5));  // lower median: 5th of 10
+    }
+
+    @Test
+    public void medalTiersStartAtTheirThresholds() {
+        for (int t = Medals.BRONZE; t <= Medals.PLATINUM; t++) {
+            assertEquals(t - 1, Medals.tier(Medals.THRESHOLDS[t] - 1));
+            assertEquals(t, Medals.tier(Medals.THRESHOLDS[t]));
+        }
+        assertEquals(Medals.NONE, Medals.tier(0));
+        assertEquals(Medals.PLATINUM, Medals.tier(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void emptyRollupAveragesZero() {
+        assertEquals(0, new StatsRollup().averageScore(), 0);
+    }
+}
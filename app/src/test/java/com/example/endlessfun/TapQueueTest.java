@@ -0,0 +1,58 @@
+package com.example.endlessfun;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TapQueueTest {
+
+    @Test
+    public void tapsComeOutInOrderAtTheirTick() {
+        TapQueue q = new TapQueue();
+        q.push(100);
+        q.push(120);
+        q.push(140);
+        assertEquals(-1, q.pollUntil(99));
+        assertEquals(100, q.pollUntil(100));  // due exactly at the tick
+        assertEquals(-1, q.pollUntil(119));
+        assertEquals(120, q.pollUntil(139));
+        assertEquals(140, q.pollUntil(1000));
+        assertEquals(-1, q.pollUntil(1000));
+    }
+
+    @Test
+    public void tapsInOneTickCollapseIntoOneFlap() {
+        TapQueue q = new TapQueue();
+        q.push(101);
+        q.push(105);
+        q.push(118);
+        q.push(125);  // next tick's
+        assertEquals(118, q.pollUntil(120));  // one flap, timed by the latest tap
+        assertEquals(-1, q.pollUntil(120));
+        assertEquals(125, q.pollUntil(140));
+    }
+
+    @Test
+    public void fullRingDropsTheOldestTaps() {
+        TapQueue q = new TapQueue();
+        for (int t = 1; t <= 40; t++) q.push(t);  // 32 fit: 1..8 are dropped
+        assertEquals(-1, q.pollUntil(8));
+        assertEquals(9, q.pollUntil(9));
+        assertEquals(40, q.pollUntil(40));
+        assertEquals(-1, q.pollUntil(Long.MAX_VALUE));
+
+        for (int t = 50; t < 50 + 32; t++) q.push(t);  // exactly full after wrapping
+        assertEquals(81, q.pollUntil(81));
+    }
+
+    @Test
+    public void clearDropsPendingTaps() {
+        TapQueue q = new TapQueue();
+        q.push(10);
+        q.push(20);
+        q.clear();
+        assertEquals(-1, q.pollUntil(100));
+        q.push(30);
+        assertEquals(30, q.pollUntil(100));
+    }
+}
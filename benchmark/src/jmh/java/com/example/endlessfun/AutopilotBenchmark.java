@@ -0,0 +1,81 @@
+package com.example.endlessfun;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookahead cost. decide/search report the "nodes" counter: simulated ticks per second.
+ * The time per op of decide must stay well under a 20 ms game tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AutopilotBenchmark {
+
+    private final GameState state = new GameState();
+    private final GameState copy = new GameState();
+    private final ByteBuffer start = ByteBuffer.allocate(GameState.SNAPSHOT_MAX_BYTES);
+    private final Autopilot autopilot = new Autopilot();
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Fixtures.midRun(42).writeTo(start);
+        start.flip();
+        restart();
+    }
+
+    private void restart() {
+        state.readFrom(start.duplicate());
+        autopilot.reset();
+    }
+
+    /** One clone of a mid-run state, the unit of work of the lookahead. */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public GameState cloneState() {
+        copy.copyFrom(state);
+        return copy;
+    }
+
+    /** The Autopilot flying a run, one decision + tick per op (plans reused where they still hold). */
+    @Benchmark
+    public int decide(Counters counters) {
+        if (state.gameOver) restart();
+        long before = autopilot.nodes;
+        boolean flap = autopilot.decide(state);
+        counters.nodes += autopilot.nodes - before;
+        return state.tick(flap);
+    }
+
+    /** A fresh search from the mid-run state every op (worst case: no plan to reuse). */
+    @Benchmark
+    public boolean search(Counters counters) {
+        autopilot.reset();
+        long before = autopilot.nodes;
+        boolean flap = autopilot.decide(state);
+        counters.nodes += autopilot.nodes - before;
+        return flap;
+    }
+}
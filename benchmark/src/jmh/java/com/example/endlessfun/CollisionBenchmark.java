@@ -0,0 +1,81 @@
+package com.example.endlessfun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pixel-accurate collision against the real player sprite (player.png at 1080x2340 scale).
+ * The narrow-phase cases have a pipe edge inside the sprite's bounding box, so the broad phase
+ * can't answer and rows of mask words are scanned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+
+    private int[] pixels;
+    private CollisionMask mask;
+    private GameState masked;
+    private GameState boxed;
+
+    @Setup
+    public void setup() {
+        pixels = Fixtures.playerPixels();
+        mask = Fixtures.playerMask();
+        masked = Fixtures.newRun(42);
+        boxed = Fixtures.newRun(42);
+        boxed.setPlayerMask(null);
+        for (GameState s : new GameState[] { masked, boxed }) {
+            // One pipe straddling the bird's right edge, its gap top cutting through the sprite
+            s.obstacleCount = 1;
+            s.obstX[0] = s.playerX + s.playerW / 2f - 12;
+            s.obstWidth[0] = s.width / 8f;
+            s.gapH[0] = 400;
+            s.gapCenterY[0] = s.playerY - s.playerH / 4f + 200;
+        }
+    }
+
+    /** Building the mask from the scaled sprite (once per screen size in the game). */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public CollisionMask buildMask() {
+        return CollisionMask.fromArgb(pixels, GameFixtures.PLAYER_W, GameFixtures.PLAYER_H);
+    }
+
+    /** Rect clear of the opaque bounds: rejected by the broad phase. */
+    @Benchmark
+    public boolean broadPhaseMiss() {
+        return mask.hitsRect(0, 0, mask.maxX + 1, 0, mask.maxX + 100, mask.height);
+    }
+
+    /** Rect over the transparent top-right corner: every overlapping row is scanned, no hit. */
+    @Benchmark
+    public boolean narrowPhaseCornerMiss() {
+        return mask.hitsRect(0, 0, mask.width - 12, 0, mask.width, mask.height / 3f);
+    }
+
+    /** Rect over the whole sprite: hits on the first opaque row. */
+    @Benchmark
+    public boolean narrowPhaseHit() {
+        return mask.hitsRect(0, 0, 0, 0, mask.width, mask.height);
+    }
+
+    /** GameState.hitsPlayer with the sprite mask (both pipe rects). */
+    @Benchmark
+    public boolean hitsPlayerMask() {
+        return masked.hitsPlayer(0);
+    }
+
+    /** GameState.hitsPlayer with the old padded box, for comparison. */
+    @Benchmark
+    public boolean hitsPlayerBox() {
+        return boxed.hitsPlayer(0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.endlessfun;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Deterministic game states for the benchmarks: GameFixtures' screen and scripted player, plus
+ * the real sprite mask and obstacle patterns loaded from the app's resources.
+ */
+final class Fixtures {
+
+    private static CollisionMask playerMask;
+    private static ObstaclePatterns patterns;
+
+    private Fixtures() {}
+
+    /** Mask of player.png scaled (bilinear) to the player size, like GameView's scaled bitmap. */
+    static synchronized CollisionMask playerMask() {
+        if (playerMask == null) {
+            int[] argb = playerPixels();
+            playerMask = CollisionMask.fromArgb(argb, GameFixtures.PLAYER_W, GameFixtures.PLAYER_H);
+        }
+        return playerMask;
+    }
+
+    /** The game's res/raw/obstacle_patterns.txt, compiled. */
+    static synchronized ObstaclePatterns patterns() {
+        if (patterns == null) patterns = ObstaclePatterns.parse(patternsText());
+        return patterns;
+    }
+
+    static String patternsText() {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/obstacle_patterns.txt")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int[] playerPixels() {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/player.png")) {
+            BufferedImage src = ImageIO.read(in);
+            BufferedImage scaled = new BufferedImage(GameFixtures.PLAYER_W, GameFixtures.PLAYER_H, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(src, 0, 0, GameFixtures.PLAYER_W, GameFixtures.PLAYER_H, null);
+            g.dispose();
+            return scaled.getRGB(0, 0, GameFixtures.PLAYER_W, GameFixtures.PLAYER_H, null, 0, GameFixtures.PLAYER_W);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A fresh run with the countdown already over (sprite mask and pattern table as in the game). */
+    static GameState newRun(long seed) {
+        GameState s = GameFixtures.newState();
+        s.setPlayerMask(playerMask());
+        s.setPatterns(patterns());
+        s.reset(seed, 90, 0);
+        while (s.countdownActive) s.tick(false);
+        return s;
+    }
+
+    /** A run a few pipes in, with two pipes on screen and the bird alive. */
+    static GameState midRun(long seed) {
+        GameState s = newRun(seed);
+        while (s.obstacleCount < 2 || s.score < 3) {
+            s.tick(GameFixtures.shouldFlap(s));
+            if (s.gameOver) s = newRun(++seed);
+        }
+        return s;
+    }
+}
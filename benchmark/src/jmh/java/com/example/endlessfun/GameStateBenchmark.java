@@ -0,0 +1,76 @@
+package com.example.endlessfun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/** Per-tick simulation cost: full tick, collision checks, spawn + difficulty ramp. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameStateBenchmark {
+
+    private final GameState state = new GameState();
+    private final ByteBuffer start = ByteBuffer.allocate(GameState.SNAPSHOT_MAX_BYTES);
+    private final RewindBuffer rewind = new RewindBuffer();
+
+    @Setup
+    public void setup() {
+        Fixtures.midRun(42).writeTo(start);
+        start.flip();
+        restart();
+    }
+
+    private void restart() {
+        state.readFrom(start.duplicate());
+    }
+
+    /** One tick of a scripted run (obstacle update, scoring, collision); restarts on game over. */
+    @Benchmark
+    public int tick() {
+        if (state.gameOver) restart();
+        return state.tick(GameFixtures.shouldFlap(state));
+    }
+
+    /** Collision test of the player against every pipe on screen. */
+    @Benchmark
+    public int collisionAllPipes() {
+        int hits = 0;
+        for (int i = 0; i < state.obstacleCount; i++) {
+            if (state.hitsPlayer(i)) hits++;
+        }
+        return hits;
+    }
+
+    /** Per-tick cost of rewind mode: snapshot into the ring (wrapping once full). */
+    @Benchmark
+    public int rewindPush() {
+        rewind.push(state);
+        return rewind.size();
+    }
+
+    /** One rewound tick: restore the newest snapshot (refilled when empty). */
+    @Benchmark
+    public boolean rewindPop() {
+        if (rewind.size() == 0) {
+            for (int i = 0; i < RewindBuffer.CAPACITY_TICKS; i++) rewind.push(state);
+        }
+        return rewind.pop(state);
+    }
+
+    /** A tick that spawns a pipe and ramps difficulty. */
+    @Benchmark
+    public int spawnAndRamp() {
+        restart();
+        state.spawnTimer = state.spawnDelay;
+        state.score = state.lastDifficultyScore + GameState.DIFFICULTY_INTERVAL;
+        return state.tick(false);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.endlessfun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Obstacle patterns: compiling the resource (startup) and spawning from the tables (play). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PatternBenchmark {
+
+    private String text;
+    private ObstaclePatterns patterns;
+    private GameState state;
+    private int score;
+
+    @Setup
+    public void setup() {
+        text = Fixtures.patternsText();
+        patterns = Fixtures.patterns();
+        state = Fixtures.midRun(42);
+    }
+
+    /** Parse + compile of res/raw/obstacle_patterns.txt. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ObstaclePatterns compile() {
+        return ObstaclePatterns.parse(text);
+    }
+
+    /** Weighted pattern pick (alias table) across difficulty bands. */
+    @Benchmark
+    public int choose() {
+        score = (score + 7) & 63;
+        return patterns.choose(score, state.nextFloat());
+    }
+
+    /** A tick that spawns the next pattern step (bird kept mid-air, old pipes dropped). */
+    @Benchmark
+    public int spawnTick() {
+        state.gameOver = false;
+        state.playerY = state.height / 2f;
+        state.velocityY = 0;
+        state.obstacleCount = 0;
+        state.spawnTimer = Integer.MAX_VALUE / 2;
+        return state.tick(false);
+    }
+}
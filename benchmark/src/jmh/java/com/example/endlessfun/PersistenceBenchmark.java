@@ -0,0 +1,86 @@
+package com.example.endlessfun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU side of persisting a run: the ghost that is stored with the high score and the
+ * GameState snapshot used for saved instance state. The Room write itself needs a device
+ * and is not measured here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PersistenceBenchmark {
+
+    private static final int RUN_TICKS = 15_000;  // 5 minutes at 50 ticks/s
+
+    private final GameState state = new GameState();
+    private final GhostTrack recorder = new GhostTrack();
+    private final GhostTrack longRun = new GhostTrack();
+    private final GhostTrack playback = new GhostTrack();
+    private final ByteBuffer buf = ByteBuffer.allocate(GameState.SNAPSHOT_MAX_BYTES);
+    private float y;
+
+    @Setup
+    public void setup() {
+        GameState s = Fixtures.midRun(42);
+        buf.clear();
+        s.writeTo(buf);
+        buf.flip();
+        state.readFrom(buf);
+
+        longRun.startRecording(GameFixtures.HEIGHT);
+        GameState sim = Fixtures.newRun(7);
+        for (int i = 0; i < RUN_TICKS; i++) {
+            if (sim.gameOver) sim = Fixtures.newRun(7 + i);
+            sim.tick(GameFixtures.shouldFlap(sim));
+            longRun.record(sim.playerY);
+        }
+        playback.load(longRun.toBytes(), GameFixtures.HEIGHT);
+        recorder.startRecording(GameFixtures.HEIGHT);
+    }
+
+    @Benchmark
+    public void ghostRecordTick() {
+        if (recorder.getRecordedTicks() == RUN_TICKS) recorder.startRecording(GameFixtures.HEIGHT);
+        y = (y + 7.3f) % GameFixtures.HEIGHT;
+        recorder.record(y);
+    }
+
+    @Benchmark
+    public float ghostPlaybackTick() {
+        if (!playback.hasNext()) playback.rewindPlayback();
+        return playback.next();
+    }
+
+    /** Encoding a 5 minute run for the HighScore row (done once at game over). */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] ghostEncodeRun() {
+        return longRun.toBytes();
+    }
+
+    @Benchmark
+    public int snapshotWrite() {
+        buf.clear();
+        state.writeTo(buf);
+        return buf.position();
+    }
+
+    @Benchmark
+    public boolean snapshotRoundTrip() {
+        buf.clear();
+        state.writeTo(buf);
+        buf.flip();
+        return state.readFrom(buf);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.endlessfun;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/** AI training mode throughput. The headline number is the "birds" counter: birds simulated per second. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SwarmBenchmark {
+
+    @Param({"1000", "10000"})
+    public int birds;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private BirdSwarm swarm;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long birds;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            birds = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        swarm = new BirdSwarm(birds, threads, 42);
+        swarm.setScreen(GameFixtures.WIDTH, GameFixtures.HEIGHT, GameFixtures.PLAYER_W, GameFixtures.PLAYER_H);
+    }
+
+    @TearDown
+    public void tearDown() {
+        swarm.shutdown();
+    }
+
+    /** One tick for the whole swarm (evolving between generations). */
+    @Benchmark
+    public int tick(Counters counters) {
+        long before = swarm.birdTicks;
+        swarm.tick();
+        counters.birds += swarm.birdTicks - before;
+        return swarm.aliveCount;
+    }
+}